@@ -0,0 +1,107 @@
+package org.example.printer3d.keyword;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 링크 우선순위 계산 비교: 기존 방식 (toLowerCase + 키워드마다 contains) vs {@link LinkPriorityClassifier}.
+ * 치과 홈페이지 메뉴와 비슷한 링크 300개를 한 번 처리하는 시간을 잽니다.
+ * 실행: mvn -Pjmh compile exec:exec
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LinkPriorityBenchmark {
+
+    // 검출기와 같은 키워드
+    private static final String[] PRIORITY_PAGE_KEYWORDS = {
+            "장비", "equipment", "시설", "facility", "진료", "treatment",
+            "소개", "about", "clinic", "technology", "tech", "digital",
+            "임플란트", "implant", "진단", "diagnosis", "첨단", "advanced"
+    };
+    private static final String[] EXCLUDE_PAGE_KEYWORDS = {
+            "contact", "연락처", "오시는길", "location", "map", "sitemap",
+            "privacy", "개인정보", "terms", "약관", "login", "admin",
+            "board", "게시판", "notice", "공지", "news", "뉴스"
+    };
+
+    private static final int LINK_COUNT = 300;
+    private static final String[] PATHS = {
+            "/sub/intro.php", "/about/greeting", "/treatment/implant.html", "/bbs/board.php?bo_table=notice",
+            "/page/equipment", "/html/sub02_01.html", "/member/login", "/clinic/digital-3d",
+            "/map/location", "/index.php?mid=ortho", "/community/review", "/Tech/CT_Scanner.ASPX"
+    };
+    private static final String[] TEXTS = {
+            "병원소개", "의료진 소개", "임플란트", "공지사항", "첨단 장비", "오시는길", "디지털 진료",
+            "치아교정", "Login", "About Us", "3D 구강스캐너", "자주 묻는 질문", "비용안내", "Digital Clinic"
+    };
+
+    private LinkPriorityClassifier classifier;
+    private String[] urls;
+    private String[] texts;
+
+    @Setup
+    public void setUp() {
+        classifier = LinkPriorityClassifier.compile(PRIORITY_PAGE_KEYWORDS, EXCLUDE_PAGE_KEYWORDS);
+        Random random = new Random(42);
+        urls = new String[LINK_COUNT];
+        texts = new String[LINK_COUNT];
+        for (int i = 0; i < LINK_COUNT; i++) {
+            urls[i] = "https://www.dental" + (i % 7) + ".co.kr" + PATHS[random.nextInt(PATHS.length)];
+            texts[i] = TEXTS[random.nextInt(TEXTS.length)];
+        }
+    }
+
+    @Benchmark
+    public int legacyContains() {
+        int sum = 0;
+        for (int i = 0; i < LINK_COUNT; i++) {
+            sum += legacyPriority(urls[i], texts[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int compiledClassifier() {
+        int sum = 0;
+        for (int i = 0; i < LINK_COUNT; i++) {
+            sum += classifier.priorityOf(urls[i], texts[i]);
+        }
+        return sum;
+    }
+
+    /**
+     * 기존 calculateLinkPriority 구현
+     */
+    private static int legacyPriority(String url, String linkText) {
+        int priority = 0;
+        String urlLower = url.toLowerCase();
+        String textLower = linkText.toLowerCase();
+
+        for (String exclude : EXCLUDE_PAGE_KEYWORDS) {
+            if (urlLower.contains(exclude) || textLower.contains(exclude)) {
+                return 0;
+            }
+        }
+        for (String keyword : PRIORITY_PAGE_KEYWORDS) {
+            if (urlLower.contains(keyword)) priority += 10;
+            if (textLower.contains(keyword)) priority += 15;
+        }
+        if (priority == 0) priority = 1;
+        return priority;
+    }
+}
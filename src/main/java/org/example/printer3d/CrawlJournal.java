@@ -0,0 +1,238 @@
+package org.example.printer3d;
+
+import org.example.printer3d.crawl.UrlCanonicalizer;
+import org.example.printer3d.model.DentalInfo;
+import org.example.printer3d.model.Detection3DResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 긴 실행을 중간부터 이어가기 위한 완료 행 기록 (추가 전용 파일, 1행 = 1줄).
+ * 결과를 받을 때는 메모리 버퍼에만 쌓고, 백그라운드에서 주기적으로 한꺼번에 쓰고 fsync 합니다. (크롤링 경로를 막지 않음)
+ * 비정상 종료로 마지막 줄이 잘렸으면 다시 열 때 그 줄을 버리므로, 최대 한 주기 분량만 다시 검사하게 됩니다.
+ */
+public class CrawlJournal implements ResultSink, Closeable {
+
+    private static final String HEADER = "#3d-scanner-journal v1";
+    private static final int FIELD_COUNT = 11;
+    private static final int LEGACY_FIELD_COUNT = 10; // 판정 단계 필드가 없던 이전 기록 (이어하기 허용)
+    private static final long SYNC_INTERVAL_MS = 1000; // 디스크 반영 주기
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Map<Integer, String[]> restored; // 행 번호 → 이전 실행에서 기록된 필드
+    private final ScheduledExecutorService syncTimer;
+    private final Object writeLock = new Object();
+
+    private StringBuilder pending = new StringBuilder();
+    private int journaledCount = 0;
+    private boolean closed = false;
+
+    private CrawlJournal(Path path, FileChannel channel, Map<Integer, String[]> restored) {
+        this.path = path;
+        this.channel = channel;
+        this.restored = restored;
+        this.syncTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "crawl-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncTimer.scheduleWithFixedDelay(this::syncQuietly, SYNC_INTERVAL_MS, SYNC_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 기록 파일을 엽니다.
+     *
+     * @param resume true 면 기존 기록을 읽어 이어 쓰고 (잘린 마지막 줄은 잘라냄), false 면 새로 시작합니다.
+     */
+    public static CrawlJournal open(Path path, boolean resume) throws IOException {
+        Map<Integer, String[]> restored = new HashMap<>();
+        long validLength = 0;
+
+        if (resume && Files.exists(path)) {
+            byte[] content = Files.readAllBytes(path);
+            int lineStart = 0;
+            for (int i = 0; i < content.length; i++) {
+                if (content[i] != '\n') continue;
+                String line = new String(content, lineStart, i - lineStart, StandardCharsets.UTF_8);
+                lineStart = i + 1;
+                if (line.equals(HEADER)) {
+                    validLength = lineStart;
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                if (validLength == 0 || (fields.length != FIELD_COUNT && fields.length != LEGACY_FIELD_COUNT)) {
+                    break; // 형식이 다른 파일이거나 손상된 줄 → 이후는 버림
+                }
+                try {
+                    restored.put(Integer.parseInt(fields[0]), fields);
+                } catch (NumberFormatException e) {
+                    break;
+                }
+                validLength = lineStart;
+            }
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        if (validLength == 0) {
+            channel.write(ByteBuffer.wrap((HEADER + "\n").getBytes(StandardCharsets.UTF_8)));
+            channel.force(false);
+        }
+        return new CrawlJournal(path, channel, restored);
+    }
+
+    /**
+     * 이전 실행에서 이미 끝난 행이면 그 결과를 돌려줍니다. (없거나 웹사이트가 바뀌었으면 null → 다시 검사)
+     * 다시 검사한 행은 새 줄로 추가되며, 다음 이어하기에서는 같은 행의 마지막 기록이 쓰입니다.
+     */
+    public Detection3DResult restore(DentalInfo dental) {
+        String[] fields = restored.get(dental.getRowIndex());
+        if (fields == null || !fields[1].equals(siteKeyOf(dental))) {
+            return null;
+        }
+
+        Detection3DResult result = new Detection3DResult(dental.getName(), dental.getWebsite(), dental.getEmail());
+        result.setHas3DPrinter("1".equals(fields[2]));
+        result.setConfidenceLevel(unescape(fields[3]));
+        result.setScore(Integer.parseInt(fields[4]));
+        result.setEvidence(unescape(fields[5]));
+        result.setReason(unescape(fields[6]));
+        result.setErrorMessage(unescape(fields[7]));
+        result.setFoundWebsite(unescape(fields[8]));
+        result.setPagesSaved(Integer.parseInt(fields[9]));
+        if (fields.length > LEGACY_FIELD_COUNT) {
+            result.setDecidedTier(unescape(fields[10]));
+        }
+        return result;
+    }
+
+    /**
+     * 이전 실행에서 기록된 행 수
+     */
+    public int getRestoredCount() {
+        return restored.size();
+    }
+
+    /**
+     * 완료된 행 1건을 버퍼에 추가합니다. (디스크 반영은 주기적으로)
+     */
+    @Override
+    public synchronized void accept(DentalInfo dental, Detection3DResult result) {
+        if (closed) return;
+        pending.append(dental.getRowIndex()).append('\t')
+                .append(siteKeyOf(dental)).append('\t')
+                .append(result.isHas3DPrinter() ? '1' : '0').append('\t')
+                .append(escape(result.getConfidenceLevel())).append('\t')
+                .append(result.getScore()).append('\t')
+                .append(escape(result.getEvidence())).append('\t')
+                .append(escape(result.getReason())).append('\t')
+                .append(escape(result.getErrorMessage())).append('\t')
+                .append(escape(result.getFoundWebsite())).append('\t')
+                .append(result.getPagesSaved()).append('\t')
+                .append(escape(result.getDecidedTier())).append('\n');
+        journaledCount++;
+    }
+
+    /**
+     * 남은 버퍼를 기록하고 닫습니다.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        syncTimer.shutdown();
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+        System.out.printf("📝 진행 기록 저장: %s (이번 실행 %d행)\n", path, journaledCount);
+    }
+
+    /**
+     * 버퍼를 파일에 쓰고 fsync
+     */
+    private void sync() throws IOException {
+        synchronized (writeLock) {
+            StringBuilder batch;
+            synchronized (this) {
+                if (pending.length() == 0) return;
+                batch = pending;
+                pending = new StringBuilder(batch.capacity());
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            System.err.printf("⚠️ 진행 기록 저장 실패 [%s]: %s\n", path, e.getMessage());
+        }
+    }
+
+    private static String siteKeyOf(DentalInfo dental) {
+        return escape(Objects.toString(UrlCanonicalizer.siteKey(dental.getWebsite()), ""));
+    }
+
+    /**
+     * 탭/줄바꿈/역슬래시 이스케이프 (한 결과가 항상 한 줄이 되도록)
+     */
+    private static String escape(String value) {
+        if (value == null) return "";
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': sb.append("\\\\"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) return value;
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                sb.append(c);
+                continue;
+            }
+            char next = value.charAt(++i);
+            switch (next) {
+                case 't': sb.append('\t'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                default: sb.append(next);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -6,7 +6,9 @@ import org.example.printer3d.model.Detection3DResult;
 import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.FileWriter;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -52,7 +54,9 @@ public class CsvFileProcessor_Email {
 
                     // 이메일이 있거나 웹사이트가 있는 치과만 처리 대상에 포함
                     if ((!email.equals("X") && !email.isEmpty())) {
-                        dentals.add(new DentalInfo(company, website, email));
+                        DentalInfo dental = new DentalInfo(company, website, email);
+                        dental.setRowIndex(originalCsvData.size() - 1);
+                        dentals.add(dental);
                         System.out.printf("✅ 로드: %s\n", company);
                     }
                 }
@@ -74,44 +78,12 @@ public class CsvFileProcessor_Email {
         }
 
         try (FileWriter writer = new FileWriter(outputPath, StandardCharsets.UTF_8)) {
-            writer.write('\ufeff'); // UTF-8 BOM 추가 (Excel 호환)
-
-            // 확장된 헤더 작성 (원본 + 3D 스캐너 검출 컬럼들 + 찾은 웹사이트)
-            writer.write(originalHeader + ",3D스캐너보유,신뢰도,점수,증거,처리상태,오류메시지,찾은웹사이트\n");
+            writeHeader(writer);
 
             // 원본 데이터와 검출 결과를 매칭하여 저장
             for (String[] originalRow : originalCsvData) {
-                // 원본 데이터 먼저 작성
-                for (int j = 0; j < originalRow.length; j++) {
-                    if (j > 0) writer.write(",");
-                    writer.write(escapeCsv(originalRow[j]));
-                }
-
-                // 3D 스캐너 검출 결과 추가
-                if (originalRow.length > 0) {
-                    String dentalName = originalRow[0].trim();
-                    Detection3DResult result = resultMap.get(dentalName);
-
-                    if (result != null) {
-                        // 검출 결과가 있는 경우
-                        writer.write(String.format(",%s,%s,%d,\"%s\",%s,\"%s\",\"%s\"",
-                                result.isHas3DPrinter() ? "예" : "아니오",
-                                result.getConfidenceLevel(),
-                                result.getScore(),
-                                result.getEvidence().replace("\"", "\"\""),
-                                getProcessStatus(result),
-                                result.getErrorMessage().replace("\"", "\"\""),
-                                result.getFoundWebsite().replace("\"", "\"\"")));
-                    } else {
-                        // 검출 결과가 없는 경우 (이메일/웹사이트 없어서 건너뛴 경우)
-                        String website = originalRow.length > 1 ? originalRow[1].trim() : "";
-                        String email = originalRow.length > 2 ? originalRow[2].trim() : "";
-                        String skipReason = getSkipReason(website, email);
-
-                        writer.write(String.format(",미검사,SKIP,0,\"%s\",건너뜀,\"\",\"\"", skipReason));
-                    }
-                }
-                writer.write("\n");
+                Detection3DResult result = originalRow.length > 0 ? resultMap.get(originalRow[0].trim()) : null;
+                writeRow(writer, originalRow, result);
             }
         }
 
@@ -120,12 +92,82 @@ public class CsvFileProcessor_Email {
                 originalCsvData.size(), results.size(), originalCsvData.size());
     }
 
+    /**
+     * 결과를 완료되는 대로 원본 행 순서에 맞춰 이어 쓰는 기록기를 엽니다.
+     *
+     * @param dentals {@link #loadDentalInfoFromCsv} 가 반환한 검사 대상 목록 (결과를 기다릴 행)
+     */
+    public CsvResultStreamWriter openResultWriter(String outputPath, List<DentalInfo> dentals) throws IOException {
+        boolean[] awaitingResult = new boolean[originalCsvData.size()];
+        for (DentalInfo dental : dentals) {
+            awaitingResult[dental.getRowIndex()] = true;
+        }
+        return new CsvResultStreamWriter(this, originalCsvData, awaitingResult, outputPath);
+    }
+
+    /**
+     * 확장된 헤더 작성 (원본 + 3D 스캐너 검출 컬럼들 + 찾은 웹사이트 + 캐스케이드 판정 단계)
+     */
+    void writeHeader(Writer writer) throws IOException {
+        writer.write('\ufeff'); // UTF-8 BOM 추가 (Excel 호환)
+        writer.write(originalHeader + ",3D스캐너보유,신뢰도,점수,증거,처리상태,오류메시지,찾은웹사이트,판정단계\n");
+    }
+
+    /**
+     * 원본 행 + 검출 결과 컬럼 1줄 작성 (result 가 null 이면 건너뛴 행)
+     */
+    void writeRow(Writer writer, String[] originalRow, Detection3DResult result) throws IOException {
+        // 원본 데이터 먼저 작성
+        writeOriginalColumns(writer, originalRow);
+
+        // 3D 스캐너 검출 결과 추가
+        if (originalRow.length > 0) {
+            if (result != null) {
+                // 검출 결과가 있는 경우
+                writer.write(String.format(",%s,%s,%d,\"%s\",%s,\"%s\",\"%s\",%s",
+                        result.isHas3DPrinter() ? "예" : "아니오",
+                        result.getConfidenceLevel(),
+                        result.getScore(),
+                        result.getEvidence().replace("\"", "\"\""),
+                        getProcessStatus(result),
+                        result.getErrorMessage().replace("\"", "\"\""),
+                        result.getFoundWebsite().replace("\"", "\"\""),
+                        result.getDecidedTier()));
+            } else {
+                // 검출 결과가 없는 경우 (이메일/웹사이트 없어서 건너뛴 경우)
+                String website = originalRow.length > 1 ? originalRow[1].trim() : "";
+                String email = originalRow.length > 2 ? originalRow[2].trim() : "";
+                String skipReason = getSkipReason(website, email);
+
+                writer.write(String.format(",미검사,SKIP,0,\"%s\",건너뜀,\"\",\"\",", skipReason));
+            }
+        }
+        writer.write("\n");
+    }
+
+    /**
+     * 검사 대상이었지만 결과가 오지 않은 행 (작업 시간 초과 등)
+     */
+    void writeIncompleteRow(Writer writer, String[] originalRow) throws IOException {
+        writeOriginalColumns(writer, originalRow);
+        writer.write(",미검사,INCOMPLETE,0,\"작업 시간 초과로 결과 없음\",미완료,\"\",\"\",\n");
+    }
+
+    private void writeOriginalColumns(Writer writer, String[] originalRow) throws IOException {
+        for (int j = 0; j < originalRow.length; j++) {
+            if (j > 0) writer.write(",");
+            writer.write(escapeCsv(originalRow[j]));
+        }
+    }
+
     /**
      * 처리 상태를 반환합니다.
      */
     private String getProcessStatus(Detection3DResult result) {
         if ("ERROR".equals(result.getConfidenceLevel())) {
             return "오류";
+        } else if ("TIMEOUT".equals(result.getConfidenceLevel())) {
+            return "시간 초과";
         } else if (result.isHas3DPrinter()) {
             return "발견";
         } else {
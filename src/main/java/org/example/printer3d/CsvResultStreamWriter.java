@@ -0,0 +1,124 @@
+package org.example.printer3d;
+
+import org.example.printer3d.model.DentalInfo;
+import org.example.printer3d.model.Detection3DResult;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 검출 결과를 완료되는 대로 결과 CSV 에 이어 쓰는 기록기.
+ * 결과는 끝나는 순서대로 도착하므로, 원본 행 순서를 지키기 위해 앞 행이 아직 끝나지 않았으면 재정렬 버퍼에 잠시 보관하고
+ * 앞 행이 채워지는 즉시 이어지는 행을 모두 쓴 뒤 flush 합니다.
+ * 메모리에는 아직 쓰지 못한 결과만 남고, 중간에 멈춰도 이미 쓴 행은 파일에 남습니다.
+ */
+public class CsvResultStreamWriter implements ResultSink, Closeable {
+
+    private final CsvFileProcessor_Email processor;
+    private final List<String[]> originalRows;
+    private final boolean[] awaitingResult; // 검사 대상 행 (결과가 와야 쓸 수 있음)
+    private final Map<Integer, Detection3DResult> reorderBuffer = new HashMap<>();
+    private final Writer writer;
+    private final String outputPath;
+
+    private int nextRow = 0;          // 다음에 쓸 원본 행
+    private int writtenResults = 0;
+    private int maxBuffered = 0;      // 재정렬 버퍼 최대 크기 (로그용)
+    private boolean closed = false;
+
+    CsvResultStreamWriter(CsvFileProcessor_Email processor, List<String[]> originalRows,
+                          boolean[] awaitingResult, String outputPath) throws IOException {
+        this.processor = processor;
+        this.originalRows = originalRows;
+        this.awaitingResult = awaitingResult;
+        this.outputPath = outputPath;
+        this.writer = new BufferedWriter(new FileWriter(outputPath, StandardCharsets.UTF_8));
+
+        processor.writeHeader(writer);
+        drain(); // 앞쪽 건너뛴 행은 바로 기록
+    }
+
+    /**
+     * 결과 1건 기록. 앞 행 결과가 모두 도착했으면 바로 쓰고, 아니면 버퍼에 보관합니다.
+     */
+    @Override
+    public synchronized void accept(DentalInfo dental, Detection3DResult result) {
+        if (closed) return;
+        int row = dental.getRowIndex();
+        if (row < nextRow || row >= originalRows.size() || !awaitingResult[row]) {
+            return; // 이미 기록했거나 대상이 아닌 행
+        }
+        reorderBuffer.put(row, result);
+        maxBuffered = Math.max(maxBuffered, reorderBuffer.size());
+        drain();
+    }
+
+    /**
+     * 남은 행을 모두 기록하고 닫습니다. 결과가 오지 않은 검사 대상 행은 미완료로 기록합니다.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+
+        int incomplete = 0;
+        try {
+            for (; nextRow < originalRows.size(); nextRow++) {
+                String[] row = originalRows.get(nextRow);
+                Detection3DResult result = reorderBuffer.remove(nextRow);
+                if (result != null) {
+                    processor.writeRow(writer, row, result);
+                    writtenResults++;
+                } else if (awaitingResult[nextRow]) {
+                    processor.writeIncompleteRow(writer, row);
+                    incomplete++;
+                } else {
+                    processor.writeRow(writer, row, null);
+                }
+            }
+        } finally {
+            writer.close();
+        }
+
+        System.out.println("💾 확장된 결과 파일 저장 완료 (UTF-8 인코딩): " + outputPath);
+        System.out.printf("📊 원본 %d줄 + 검출결과 %d개 = 총 %d줄 저장 (재정렬 버퍼 최대 %d건)\n",
+                originalRows.size(), writtenResults, originalRows.size(), maxBuffered);
+        if (incomplete > 0) {
+            System.out.printf("⚠️ 결과 없이 미완료로 기록된 행: %d개\n", incomplete);
+        }
+    }
+
+    /**
+     * 다음 행부터 쓸 수 있는 데까지 연속으로 기록 후 flush
+     */
+    private void drain() {
+        int before = nextRow;
+        try {
+            while (nextRow < originalRows.size()) {
+                String[] row = originalRows.get(nextRow);
+                if (awaitingResult[nextRow]) {
+                    Detection3DResult result = reorderBuffer.remove(nextRow);
+                    if (result == null) break; // 앞 행 결과 대기
+                    processor.writeRow(writer, row, result);
+                    writtenResults++;
+                } else {
+                    processor.writeRow(writer, row, null);
+                }
+                nextRow++;
+            }
+            if (nextRow != before) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("결과 파일 기록 실패: " + outputPath, e);
+        }
+    }
+}
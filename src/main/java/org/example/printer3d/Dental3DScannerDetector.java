@@ -1,5 +1,7 @@
 package org.example.printer3d;
 
+import org.example.printer3d.keyword.KeywordRuleSet;
+import org.example.printer3d.keyword.KeywordRules;
 import org.example.printer3d.model.DentalInfo;
 import org.example.printer3d.model.Detection3DResult;
 import org.jsoup.Jsoup;
@@ -14,34 +16,9 @@ import java.util.List;
 
 public class Dental3DScannerDetector {
 
-    //3D 스캐너 관련 키워드들
-    private static final String[] SCANNER_3D_KEYWORDS = {
-            "3d스캐너", "3d 스캐너", "3d scanning", "3d스캐닝", "3d 스캐닝",
-            "쓰리디스캐너", "쓰리디 스캐너", "삼차원 스캐너",
-            "구강스캐너", "intraoral scanner", "인트라오럴 스캐너",
-            "광학스캐너", "optical scanner", "디지털인상", "digital impression",
-            // 브랜드명
-            "itero", "trios", "cerec", "carestream", "cs3600", "cs3700",
-            "medit", "i500", "i700", "primescan", "sirona",
-            "planmeca", "emerald", "3shape", "shining3d", "aoralscan",
-            "dentapix", "launca", "virtuo vivo",
-            // 기술 방식
-            "confocal", "컨포컬", "structured light", "구조광",
-            "triangulation", "삼각측량", "stereo camera", "스테레오카메라",
-            // 치과 전용
-            "dental scanner", "덴탈 스캐너", "치과용 스캐너", "치과 3d스캐너",
-            "구강내 스캐너", "인상채득", "impression", "석고모형", "plaster model"
-    };
-
-
-    // 디지털 치과 키워드
-    private static final String[] DIGITAL_KEYWORDS = {
-            "디지털치과", "디지털 치과", "digital dentistry",
-            "스마트치과", "첨단장비", "최신장비", "하이테크",
-            "디지털임플란트", "원데이", "당일", "즉시", "빠른진료",
-            "무인상", "인상없이", "편안한치료", "정밀진단",
-            "cad/cam", "캐드캠", "cadcam", "워크플로우"
-    };
+    // 점수 규칙: 3D 스캐너 키워드 15점, 디지털 키워드 5점 (규칙 파일에 가중치가 있으면 그 값) / LOW 15, MEDIUM 25, HIGH 40
+    private static final int SCANNER_POINTS = 15;
+    private static final int DIGITAL_POINTS = 5;
 
     private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
     private static final int TIMEOUT_MS = 15000;
@@ -102,10 +79,10 @@ public class Dental3DScannerDetector {
                     .timeout(TIMEOUT_MS)
                     .get();
 
-            String fullText = doc.text().toLowerCase();
+            String fullText = doc.text();
 
             // 키워드 검색 및 점수 계산
-            calculateDetectionScore(result, fullText);
+            calculateDetectionScore(result, fullText, KeywordRules.current());
 
         } catch (Exception e) {
             result.setHas3DPrinter(false);
@@ -117,25 +94,36 @@ public class Dental3DScannerDetector {
         return result;
     }
 
+    /**
+     * 이미 받아 둔 메인 페이지 텍스트로 판정합니다. (요청 없음, 캐스케이드의 첫 단계)
+     *
+     * @param rules 호출한 쪽이 사이트 검사에 쓰는 키워드 규칙
+     */
+    public Detection3DResult detectFromText(DentalInfo dental, CharSequence pageText, KeywordRuleSet rules) {
+        Detection3DResult result = new Detection3DResult(dental.getName(), dental.getWebsite(), dental.getEmail());
+        calculateDetectionScore(result, pageText, rules);
+        return result;
+    }
+
     /**
      * 키워드 기반으로 3D 스캐너 보유 점수를 계산합니다.
      */
-    private void calculateDetectionScore(Detection3DResult result, String pageText) {
-        List<String> found3D = findMatchingKeywords(pageText, SCANNER_3D_KEYWORDS);
-        List<String> foundDigital = findMatchingKeywords(pageText, DIGITAL_KEYWORDS);
+    private void calculateDetectionScore(Detection3DResult result, CharSequence pageText, KeywordRuleSet rules) {
+        List<String> found3D = rules.matcher(KeywordRuleSet.Category.SCANNER).findMatching(pageText);
+        List<String> foundDigital = rules.matcher(KeywordRuleSet.Category.DIGITAL).findMatching(pageText);
 
         int score = 0;
         StringBuilder evidence = new StringBuilder();
 
         // 3D 스캐너 직접 언급 (가장 중요)
         if (!found3D.isEmpty()) {
-            score += found3D.size() * 15;
+            score += rules.pointsOf(KeywordRuleSet.Category.SCANNER, found3D, SCANNER_POINTS);
             evidence.append("📱 3D스캐너: ").append(String.join(", ", found3D)).append(" | ");
         }
 
         // 디지털 치과 키워드 (보조 지표)
         if (!foundDigital.isEmpty()) {
-            score += foundDigital.size() * 5;
+            score += rules.pointsOf(KeywordRuleSet.Category.DIGITAL, foundDigital, DIGITAL_POINTS);
             evidence.append("💻 디지털: ").append(String.join(", ", foundDigital)).append(" | ");
         }
 
@@ -161,19 +149,6 @@ public class Dental3DScannerDetector {
         result.setErrorMessage("");
     }
 
-    /**
-     * 텍스트에서 키워드 매칭을 찾습니다.
-     */
-    private List<String> findMatchingKeywords(String text, String[] keywords) {
-        List<String> found = new ArrayList<>();
-        for (String keyword : keywords) {
-            if (text.contains(keyword.toLowerCase())) {
-                found.add(keyword);
-            }
-        }
-        return found;
-    }
-
     /**
      * 개별 검출 결과를 출력합니다.
      */
@@ -1,13 +1,26 @@
 package org.example.printer3d;
 
+import org.example.printer3d.crawl.LinkFilter;
+import org.example.printer3d.crawl.SiteBudget;
+import org.example.printer3d.fetch.AdaptiveConcurrencyLimiter;
+import org.example.printer3d.fetch.CrawlExecutors;
+import org.example.printer3d.fetch.FetchedPage;
+import org.example.printer3d.fetch.PageFetcher;
+import org.example.printer3d.fetch.PolitenessScheduler;
+import org.example.printer3d.keyword.KeywordRuleSet;
+import org.example.printer3d.keyword.KeywordRules;
+import org.example.printer3d.keyword.LinkPriorityClassifier;
+import org.example.printer3d.keyword.ScoreRule;
+import org.example.printer3d.keyword.SiteScoreAccumulator;
 import org.example.printer3d.model.DentalInfo;
 import org.example.printer3d.model.Detection3DResult;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
+import java.io.IOException;
 import java.net.URL;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -15,57 +28,32 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 //3D 스캐너 찾는 딥 크롤링_멀티 스레드
 public class Dental3DScannerDetectorDeepCrawling {
-    // 3D 스캐너 관련 키워드들
-    private static final String[] SCANNER_3D_KEYWORDS = {
-            "3d스캐너", "3d 스캐너", "3d scanning", "3d스캐닝", "3d 스캐닝",
-            "쓰리디스캐너", "쓰리디 스캐너", "삼차원 스캐너",
-            "구강스캐너", "intraoral scanner", "인트라오럴 스캐너",
-            "광학스캐너", "optical scanner", "디지털인상", "digital impression",
-            // 브랜드명
-            "itero", "trios", "cerec", "carestream", "cs3600", "cs3700",
-            "medit", "i500", "i700", "primescan", "sirona",
-            "planmeca", "emerald", "3shape", "shining3d", "aoralscan",
-            "dentapix", "launca", "virtuo vivo",
-            // 기술 방식
-            "confocal", "컨포컬", "structured light", "구조광",
-            "triangulation", "삼각측량", "stereo camera", "스테레오카메라",
-            // 치과 전용
-            "dental scanner", "덴탈 스캐너", "치과용 스캐너", "치과 3d스캐너",
-            "구강내 스캐너", "인상채득", "impression", "석고모형", "plaster model"
-    };
-
-    // 디지털 치과 키워드
-    private static final String[] DIGITAL_KEYWORDS = {
-            "디지털치과", "디지털 치과", "digital dentistry",
-            "스마트치과", "첨단장비", "최신장비", "하이테크",
-            "디지털임플란트", "무인상", "인상없이", "편안한치료",
-            "정밀진단", "cad/cam", "캐드캠", "cadcam", "워크플로우"
-    };
-
-    // 우선순위 높은 페이지 키워드
-    private static final String[] PRIORITY_PAGE_KEYWORDS = {
-            "장비", "equipment", "시설", "facility", "진료", "treatment",
-            "소개", "about", "clinic", "technology", "tech", "digital",
-            "임플란트", "implant", "진단", "diagnosis", "첨단", "advanced"
-    };
-
-    // 제외할 페이지 키워드
-    private static final String[] EXCLUDE_PAGE_KEYWORDS = {
-            "contact", "연락처", "오시는길", "location", "map", "sitemap",
-            "privacy", "개인정보", "terms", "약관", "login", "admin",
-            "board", "게시판", "notice", "공지", "news", "뉴스"
-    };
+    private static final ScoreRule SCORE_RULE = ScoreRule.deepScanDefault();
 
     private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
     private static final int TIMEOUT_MS = 10000;
-    private static final int THREAD_POOL_SIZE = 10;
+    private static final int THREAD_POOL_SIZE = 50; // 가상 스레드 미지원(JDK 21 미만) 시 플랫폼 스레드 수
+    private static final int INITIAL_CONCURRENT_SITES = 10; // 동시 진행 사이트 수 시작값 (이후 p95 지연/오류율에 따라 자동 조절)
+    private static final int MIN_CONCURRENT_SITES = 2;      // 혼잡해도 이 이하로는 줄이지 않음
+    private static final int MAX_CONCURRENT_SITES = THREAD_POOL_SIZE; // 사이트 작업이 스레드를 붙잡고 기다리므로 스레드 수를 넘기지 않음
     private static final int MAX_PAGES_PER_SITE = 25; // 사이트당 최대 25페이지
-    private static final int DELAY_BETWEEN_PAGES_MS = 200; // 페이지간 0.2초 대기
+    private static final double HOST_REQUESTS_PER_SECOND = 5.0; // 같은 호스트 요청 속도: 초당 5회 (기존 0.2초 간격과 동일)
+    private static final Duration SITE_TIME_BUDGET = Duration.ofSeconds(120); // 사이트당 전체 크롤링 시간 상한 (초과 시 연결을 끊고 부분 결과를 TIMEOUT 으로 기록)
 
     // 스레드 안전한 카운터
     private final AtomicInteger processedCount = new AtomicInteger(0);
     private final AtomicInteger totalCount = new AtomicInteger(0);
 
+    // 동시 진행 사이트 수 제한기 (수집기의 요청 결과로 허용 수 조절)
+    private final AdaptiveConcurrencyLimiter siteConcurrency = new AdaptiveConcurrencyLimiter("사이트",
+            INITIAL_CONCURRENT_SITES, MIN_CONCURRENT_SITES, MAX_CONCURRENT_SITES);
+
+    // HTTP 수집기 (같은 호스트 요청만 간격 조절)
+    private final PageFetcher pageFetcher = PageFetcher.builder(USER_AGENT, TIMEOUT_MS)
+            .politeness(new PolitenessScheduler(HOST_REQUESTS_PER_SECOND))
+            .listener(siteConcurrency)
+            .build();
+
     /**
      * 모든 치과의 3D 스캐너 보유 여부를 멀티스레드 딥 크롤링으로 검사합니다.
      */
@@ -75,10 +63,10 @@ public class Dental3DScannerDetectorDeepCrawling {
         totalCount.set(dentalList.size());
         processedCount.set(0);
 
-        System.out.println("🕷️ 3D 스캐너 딥 크롤링 시작 (멀티스레드: " + THREAD_POOL_SIZE + "개)...\n");
+        System.out.println("🕷️ 3D 스캐너 딥 크롤링 시작 (" + describeExecutionMode() + ")...\n");
 
-        // 스레드풀 생성
-        ExecutorService executor = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+        // 실행기 생성 (Java 21+ 가상 스레드, 그 외 고정 스레드풀)
+        ExecutorService executor = CrawlExecutors.newSiteExecutor(THREAD_POOL_SIZE);
 
         // 결과 저장용 배열
         Detection3DResult[] resultsArray = new Detection3DResult[dentalList.size()];
@@ -90,6 +78,14 @@ public class Dental3DScannerDetectorDeepCrawling {
             final int index = i;
             final DentalInfo dental = dentalList.get(i);
 
+            // 동시 진행 사이트 수 제한 (작업이 끝나야 다음 사이트 제출, 허용 수는 네트워크 상태에 따라 자동 조절)
+            try {
+                siteConcurrency.acquireBlocking();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
             CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
                 try {
                     Detection3DResult result = deepScanSite(dental);
@@ -103,6 +99,8 @@ public class Dental3DScannerDetectorDeepCrawling {
                     System.err.println("❌ 처리 오류 [" + dental.getName() + "]: " + e.getMessage());
                     resultsArray[index] = createErrorResult(dental, e.getMessage());
                     processedCount.incrementAndGet();
+                } finally {
+                    siteConcurrency.release();
                 }
             }, executor);
 
@@ -114,9 +112,7 @@ public class Dental3DScannerDetectorDeepCrawling {
             CompletableFuture<Void> allTasks = CompletableFuture.allOf(
                     futures.toArray(new CompletableFuture[0])
             );
-            allTasks.get(20, TimeUnit.MINUTES); // 딥 크롤링이므로 최대 20분 대기
-        } catch (TimeoutException e) {
-            System.err.println("⚠️ 일부 작업이 타임아웃되었습니다.");
+            allTasks.get(); // 사이트마다 제한 시간(SITE_TIME_BUDGET)이 있으므로 전체 대기 상한 없음
         } catch (Exception e) {
             System.err.println("❌ 멀티스레드 처리 중 오류: " + e.getMessage());
         } finally {
@@ -131,12 +127,11 @@ public class Dental3DScannerDetectorDeepCrawling {
             }
         }
 
-        // 배열을 리스트로 변환
+        // 배열을 리스트로 변환 (끝나지 못한 행도 빠뜨리지 않고 오류로 기록)
         List<Detection3DResult> results = new ArrayList<>();
-        for (Detection3DResult result : resultsArray) {
-            if (result != null) {
-                results.add(result);
-            }
+        for (int i = 0; i < resultsArray.length; i++) {
+            results.add(resultsArray[i] != null ? resultsArray[i]
+                    : createErrorResult(dentalList.get(i), "사이트 처리 중단"));
         }
 
         long endTime = System.currentTimeMillis();
@@ -163,15 +158,19 @@ public class Dental3DScannerDetectorDeepCrawling {
 
         Set<String> visitedPages = ConcurrentHashMap.newKeySet();
         Queue<String> pagesToVisit = new LinkedList<>();
-        StringBuilder allText = new StringBuilder();
-        List<String> foundEvidence = new ArrayList<>();
+        SiteBudget budget = new SiteBudget(SITE_TIME_BUDGET); // 이 사이트에 허용된 전체 시간
+        KeywordRuleSet rules = KeywordRules.current(); // 이 사이트를 검사하는 동안 고정 (도중에 규칙 파일이 바뀌어도 섞이지 않음)
+        SiteScoreAccumulator siteScore = new SiteScoreAccumulator(SCORE_RULE, rules);
 
+        int pageCount = 0;
         try {
             String baseUrl = dental.getWebsite().trim();
             pagesToVisit.offer(baseUrl);
 
-            int pageCount = 0;
             while (!pagesToVisit.isEmpty() && pageCount < MAX_PAGES_PER_SITE) {
+                if (budget.isExpired()) {
+                    throw new TimeoutException();
+                }
                 String currentUrl = pagesToVisit.poll();
 
                 if (visitedPages.contains(currentUrl)) {
@@ -182,31 +181,18 @@ public class Dental3DScannerDetectorDeepCrawling {
                 pageCount++;
 
                 try {
-                    Document doc = Jsoup.connect(currentUrl)
-                            .userAgent(USER_AGENT)
-                            .timeout(TIMEOUT_MS)
-                            .followRedirects(true)
-                            .get();
-
-                    // 페이지 텍스트 수집
-                    String pageText = doc.text().toLowerCase();
-                    allText.append(pageText).append(" ");
-
-                    // 키워드 검사
-                    List<String> foundKeywords = findMatchingKeywords(pageText, SCANNER_3D_KEYWORDS);
-                    if (!foundKeywords.isEmpty()) {
-                        foundEvidence.add(String.format("페이지[%s]: %s",
-                                getPageTitle(doc), String.join(", ", foundKeywords)));
-                    }
+                    Document doc = fetchWithinBudget(pageFetcher.fetchAsync(currentUrl), budget).parse();
+
+                    // 페이지 단위 키워드 검사 (사이트 점수에 즉시 반영)
+                    siteScore.addPageText(doc.text());
 
                     // 첫 번째 페이지에서만 링크 수집
                     if (pageCount == 1) {
-                        collectInternalLinks(doc, baseUrl, pagesToVisit, visitedPages);
+                        collectInternalLinks(doc, baseUrl, pagesToVisit, visitedPages, rules.getLinkClassifier());
                     }
 
-                    // 페이지간 딜레이
-                    Thread.sleep(DELAY_BETWEEN_PAGES_MS);
-
+                } catch (TimeoutException | InterruptedException e) {
+                    throw e;
                 } catch (Exception e) {
                     // 개별 페이지 오류는 무시하고 계속 진행
                     continue;
@@ -214,8 +200,12 @@ public class Dental3DScannerDetectorDeepCrawling {
             }
 
             // 최종 점수 계산
-            calculateDeepScanScore(result, allText.toString(), foundEvidence, pageCount);
+            siteScore.applyTo(result, pageCount, 0);
 
+        } catch (TimeoutException e) {
+            // 사이트 제한 시간 초과: 진행 중인 요청은 이미 끊겼으므로 여기까지의 점수로 부분 결과 기록
+            siteScore.applyTo(result, pageCount, 0);
+            markTimedOut(result, pageCount);
         } catch (Exception e) {
             result.setHas3DPrinter(false);
             result.setConfidenceLevel("ERROR");
@@ -229,7 +219,8 @@ public class Dental3DScannerDetectorDeepCrawling {
     /**
      * 내부 링크 수집 (우선순위 기반)
      */
-    private void collectInternalLinks(Document doc, String baseUrl, Queue<String> pagesToVisit, Set<String> visitedPages) {
+    private void collectInternalLinks(Document doc, String baseUrl, Queue<String> pagesToVisit, Set<String> visitedPages,
+                                      LinkPriorityClassifier linkClassifier) {
         try {
             URL base = new URL(baseUrl);
             String baseDomain = base.getHost();
@@ -241,6 +232,11 @@ public class Dental3DScannerDetectorDeepCrawling {
                 String href = link.attr("abs:href");
                 String linkText = link.text().toLowerCase();
 
+                //이미지/문서 파일 제외. (주소 확장자 기준, 나머지는 응답 헤더로 거름)
+                if (LinkFilter.isNonHtmlResource(href)) {
+                    continue;
+                }
+
                 if (href.isEmpty() || visitedPages.contains(href)) {
                     continue;
                 }
@@ -256,7 +252,7 @@ public class Dental3DScannerDetectorDeepCrawling {
                 }
 
                 // 우선순위 계산
-                int priority = calculateLinkPriority(href, linkText);
+                int priority = linkClassifier.priorityOf(href, linkText);
                 if (priority > 0) {
                     linkPriorities.put(href, priority);
                 }
@@ -274,103 +270,25 @@ public class Dental3DScannerDetectorDeepCrawling {
     }
 
     /**
-     * 링크 우선순위 계산
-     */
-    private int calculateLinkPriority(String url, String linkText) {
-        int priority = 0;
-        String urlLower = url.toLowerCase();
-        String textLower = linkText.toLowerCase();
-
-        // 제외할 페이지 체크
-        for (String exclude : EXCLUDE_PAGE_KEYWORDS) {
-            if (urlLower.contains(exclude) || textLower.contains(exclude)) {
-                return 0; // 제외
-            }
-        }
-
-        // 우선순위 페이지 체크
-        for (String keyword : PRIORITY_PAGE_KEYWORDS) {
-            if (urlLower.contains(keyword)) priority += 10;
-            if (textLower.contains(keyword)) priority += 15;
-        }
-
-        // 기본 점수
-        if (priority == 0) priority = 1;
-
-        return priority;
-    }
-
-    /**
-     * 딥 스캔 점수 계산
-     */
-    private void calculateDeepScanScore(Detection3DResult result, String allText,
-                                        List<String> evidenceList, int pageCount) {
-        List<String> foundKeywords = findMatchingKeywords(allText, SCANNER_3D_KEYWORDS);
-        List<String> foundDigital = findMatchingKeywords(allText, DIGITAL_KEYWORDS);
-
-        int score = 0;
-        StringBuilder evidence = new StringBuilder();
-
-        // 3D 스캐너 키워드
-        if (!foundKeywords.isEmpty()) {
-            score += foundKeywords.size() * 12; // 딥 크롤링에서는 점수 조정
-            evidence.append("📱 3D스캐너: ").append(String.join(", ", foundKeywords)).append(" | ");
-        }
-
-        // 디지털 치과 키워드
-        if (!foundDigital.isEmpty()) {
-            score += foundDigital.size() * 4;
-            evidence.append("💻 디지털: ").append(String.join(", ", foundDigital)).append(" | ");
-        }
-
-        // 페이지 다양성 보너스
-        if (evidenceList.size() > 1) {
-            score += evidenceList.size() * 3;
-        }
-
-        evidence.append("📄 검사 페이지: ").append(pageCount).append("개");
-
-        // 신뢰도 판정 (딥 크롤링은 더 엄격하게)
-        if (score >= 20) {
-            result.setHas3DPrinter(true);
-            if (score >= 50) {
-                result.setConfidenceLevel("HIGH");
-            } else if (score >= 35) {
-                result.setConfidenceLevel("MEDIUM");
-            } else {
-                result.setConfidenceLevel("LOW");
-            }
-        } else {
-            result.setHas3DPrinter(false);
-            result.setConfidenceLevel("NONE");
-        }
-
-        result.setScore(score);
-        result.setEvidence(evidence.toString());
-        result.setReason(evidence.length() > 0 ? evidence.toString() :
-                String.format("3D 관련 정보 없음 (%d페이지 검사)", pageCount));
-        result.setErrorMessage("");
-    }
-
-    /**
-     * 키워드 매칭 찾기
+     * 사이트 남은 시간 안에 페이지를 가져옵니다. 시간이 다 되면 연결을 끊고 TimeoutException
      */
-    private List<String> findMatchingKeywords(String text, String[] keywords) {
-        Set<String> found = new HashSet<>(); // 중복 제거
-        for (String keyword : keywords) {
-            if (text.contains(keyword.toLowerCase())) {
-                found.add(keyword);
-            }
+    private FetchedPage fetchWithinBudget(CompletableFuture<FetchedPage> fetch, SiteBudget budget)
+            throws IOException, TimeoutException, InterruptedException {
+        try {
+            return budget.await(fetch);
+        } catch (ExecutionException e) {
+            throw PageFetcher.asIOException(e.getCause());
         }
-        return new ArrayList<>(found);
     }
 
     /**
-     * 페이지 제목 추출
+     * 사이트 제한 시간 초과로 중단된 부분 결과 표시
      */
-    private String getPageTitle(Document doc) {
-        String title = doc.title();
-        return title.length() > 20 ? title.substring(0, 20) + "..." : title;
+    private void markTimedOut(Detection3DResult result, int pageCount) {
+        result.setConfidenceLevel("TIMEOUT");
+        result.setErrorMessage(String.format("사이트 제한 시간 %d초 초과 (%d페이지까지 검사한 부분 결과)",
+                SITE_TIME_BUDGET.getSeconds(), pageCount));
+        System.err.printf("   [TIMEOUT] %s: %s\n", result.getDentalName(), result.getErrorMessage());
     }
 
     /**
@@ -395,7 +313,9 @@ public class Dental3DScannerDetectorDeepCrawling {
             System.out.printf("✅ 3D스캐너 발견! 신뢰도: %s (점수: %d)\n",
                     result.getConfidenceLevel(), result.getScore());
         } else {
-            if ("ERROR".equals(result.getConfidenceLevel())) {
+            if ("TIMEOUT".equals(result.getConfidenceLevel())) {
+                System.out.printf("⏱️ 시간 초과 (부분 결과, 점수: %d)\n", result.getScore());
+            } else if ("ERROR".equals(result.getConfidenceLevel())) {
                 System.out.printf("❌ 크롤링 오류 (%s)\n", result.getErrorMessage());
             } else {
                 System.out.printf("❌ 3D스캐너 없음\n");
@@ -418,7 +338,7 @@ public class Dental3DScannerDetectorDeepCrawling {
         long seconds = totalDurationMs % 60000 / 1000;
 
         System.out.println("\n" + "═".repeat(60));
-        System.out.println("🎉 3D 스캐너 딥 크롤링 완료! (멀티스레드 " + THREAD_POOL_SIZE + "개)");
+        System.out.println("🎉 3D 스캐너 딥 크롤링 완료! (" + describeExecutionMode() + ")");
         System.out.printf("📊 전체 검사: %d개 치과\n", results.size());
         System.out.printf("📱 3D스캐너 보유 추정: %d개 (%.1f%%)\n", total3D, (double)total3D/results.size()*100);
         System.out.printf("   - 높은 신뢰도: %d개\n", high);
@@ -427,8 +347,22 @@ public class Dental3DScannerDetectorDeepCrawling {
         if (error > 0) {
             System.out.printf("   - 처리 오류: %d개\n", error);
         }
+        long timedOut = results.stream().filter(r -> "TIMEOUT".equals(r.getConfidenceLevel())).count();
+        if (timedOut > 0) {
+            System.out.printf("   - 시간 초과 (부분 결과): %d개\n", timedOut);
+        }
+        System.out.println("🎚️ " + siteConcurrency.describeStats());
         System.out.printf("⏱️ 총 소요시간: %d시간 %d분 %d초\n", hours, minutes, seconds);
         System.out.printf("⚡ 평균 처리속도: %.1f개/분\n", (double)results.size() / (totalDurationMs / 60000.0));
         System.out.println("═".repeat(60));
     }
+
+    /**
+     * 실행 방식 설명 (로그용)
+     */
+    private String describeExecutionMode() {
+        return CrawlExecutors.isVirtualThreadAvailable()
+                ? "가상 스레드, 동시 사이트 " + siteConcurrency.getLimit() + "개 (자동 조절, 최대 " + MAX_CONCURRENT_SITES + "개)"
+                : "멀티스레드 " + THREAD_POOL_SIZE + "개, 동시 사이트 " + siteConcurrency.getLimit() + "개 (자동 조절)";
+    }
 }
@@ -1,70 +1,68 @@
 package org.example.printer3d;
 
+import org.example.printer3d.fetch.AdaptiveConcurrencyLimiter;
+import org.example.printer3d.fetch.CrawlExecutors;
+import org.example.printer3d.crawl.CrawlFrontier;
+import org.example.printer3d.crawl.LinkFilter;
+import org.example.printer3d.crawl.LongHashSet;
+import org.example.printer3d.crawl.SiteBudget;
+import org.example.printer3d.crawl.SiteClaims;
+import org.example.printer3d.crawl.SitemapDiscovery;
+import org.example.printer3d.crawl.UrlCanonicalizer;
+import org.example.printer3d.fetch.FetchedPage;
+import org.example.printer3d.fetch.HttpCache;
+import org.example.printer3d.fetch.PageFetcher;
+import org.example.printer3d.html.HtmlLink;
+import org.example.printer3d.fetch.PipelineStage;
+import org.example.printer3d.fetch.PolitenessScheduler;
+import org.example.printer3d.fetch.RequestHedger;
+import org.example.printer3d.keyword.KeywordRuleSet;
+import org.example.printer3d.keyword.KeywordRules;
+import org.example.printer3d.keyword.LinkPriorityClassifier;
+import org.example.printer3d.keyword.ScoreRule;
+import org.example.printer3d.keyword.SiteScoreAccumulator;
 import org.example.printer3d.model.DentalInfo;
 import org.example.printer3d.model.Detection3DResult;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 //3D 스캐너 찾는 딥 크롤링_멀티 스레드
 public class Dental3DScannerDetectorDeepCrawling_Timer {
-    // 3D 스캐너 관련 키워드들(직접 키워드 : 존재)
-    private static final String[] SCANNER_3D_KEYWORDS = {
-            "3d스캐너", "3d 스캐너", "3d scanning", "3d스캐닝", "3d 스캐닝",
-            "쓰리디스캐너", "쓰리디 스캐너", "삼차원 스캐너",
-            "구강스캐너", "intraoral scanner", "인트라오럴 스캐너",
-            "광학스캐너", "optical scanner", "디지털인상", "digital impression",
-            // 브랜드명
-            "itero", "trios", "cerec", "carestream", "cs3600", "cs3700",
-            "medit", "i500", "i700", "primescan", "sirona",
-            "planmeca", "emerald", "3shape", "shining3d", "aoralscan",
-            "dentapix", "launca", "virtuo vivo",
-            // 기술 방식
-            "confocal", "컨포컬", "structured light", "구조광",
-            "triangulation", "삼각측량", "stereo camera", "스테레오카메라",
-            // 치과 전용
-            "dental scanner", "덴탈 스캐너", "치과용 스캐너", "치과 3d스캐너",
-            "구강내 스캐너", "인상채득", "impression", "석고모형", "plaster model"
-    };
-
-    // 디지털 치과 키워드(간접 키워드 : 애매함)
-    private static final String[] DIGITAL_KEYWORDS = {
-            "디지털치과", "디지털 치과", "digital dentistry",
-            "스마트치과", "첨단장비", "최신장비", "하이테크",
-            "디지털임플란트", "무인상", "인상없이", "편안한치료",
-            "정밀진단", "cad/cam", "캐드캠", "cadcam", "워크플로우"
-    };
-
-
-
-
-    // 우선순위 높은 페이지 키워드
-    private static final String[] PRIORITY_PAGE_KEYWORDS = {
-            "장비", "equipment", "시설", "facility", "진료", "treatment",
-            "소개", "about", "clinic", "technology", "tech", "digital",
-            "임플란트", "implant", "진단", "diagnosis", "첨단", "advanced"
-    };
-
-    // 제외할 페이지 키워드
-    private static final String[] EXCLUDE_PAGE_KEYWORDS = {
-            "contact", "연락처", "오시는길", "location", "map", "sitemap",
-            "privacy", "개인정보", "terms", "약관", "login", "admin",
-            "board", "게시판", "notice", "공지", "news", "뉴스"
-    };
-
     private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
-    private static final int TIMEOUT_MS = 10000;
-    private static final int THREAD_POOL_SIZE = 10;
+    private static final int TIMEOUT_MS = 10000; // 연결 후 응답 제한 시간
+    private static final int CONNECT_TIMEOUT_MS = 2000; // 연결 수립 제한 시간 (죽은 사이트는 응답을 기다리지 않고 2초 안에 실패)
+    private static final double HOMEPAGE_HEDGE_BUDGET = 0.05; // 메인 페이지가 p90 보다 늦으면 같은 요청 추가 (메인 페이지 요청의 최대 5%)
+    private static final long HOMEPAGE_HEDGE_MIN_DELAY_MS = 1000; // p90 이 짧아도 최소 1초는 기다린 뒤 헤지
+    private static final long SITEMAP_WAIT_MS = 3000; // 사이트맵(robots.txt 포함) 탐색을 기다리는 최대 시간 (넘으면 메인 페이지 링크만 사용)
+    private static final int THREAD_POOL_SIZE = 100; // 가상 스레드 미지원(JDK 21 미만) 시 플랫폼 스레드 수
+    private static final int INITIAL_CONCURRENT_SITES = 50; // 동시 진행 사이트 수 시작값 (이후 p95 지연/오류율에 따라 자동 조절)
+    private static final int MIN_CONCURRENT_SITES = 4;      // 혼잡해도 이 이하로는 줄이지 않음
+    private static final int MAX_CONCURRENT_SITES = 2000;   // 동시에 진행할 최대 사이트 수 (= 최대 동시 요청 수)
+    // 플랫폼 스레드면 사이트 작업이 스레드를 붙잡고 기다리므로 스레드 수를 넘겨 허용해도 대기열에만 쌓임
+    private static final int SITE_LIMIT_CAP = CrawlExecutors.isVirtualThreadAvailable() ? MAX_CONCURRENT_SITES : THREAD_POOL_SIZE;
     private static final int MAX_PAGES_PER_SITE = 25; // 사이트당 최대 25페이지
-    private static final int DELAY_BETWEEN_PAGES_MS = 200; // 페이지간 0.2초 대기
-    private static final int MAX_TIMEOUT_RETRIES = 3; // Read timeout 최대 3번까지 허용
+    private static final int PARSE_WORKERS = Runtime.getRuntime().availableProcessors(); // 파싱 단계 스레드 수 (코어 수)
+    private static final int PARSE_QUEUE_CAPACITY = PARSE_WORKERS * 4; // 파싱 대기열 (가득 차면 서브 페이지 요청을 늦춤)
+    private static final int SCORE_QUEUE_CAPACITY = 64;                // 집계 대기열 (집계는 키워드 수만큼 더하기라 스레드 1개)
+    private static final int SUBPAGE_FANOUT = 4; // 사이트당 동시에 가져올 서브 페이지 수 (1 이면 순차)
+    private static final double HOST_REQUESTS_PER_SECOND = 5.0; // 같은 호스트 요청 속도: 초당 5회 (기존 0.2초 간격과 동일)
+    private static final Duration SITE_TIME_BUDGET = Duration.ofSeconds(60); // 사이트당 전체 크롤링 시간 상한 (초과 시 연결을 끊고 부분 결과를 TIMEOUT 으로 기록)
+    private static final String EARLY_EXIT_LEVEL = "HIGH"; // 이 신뢰도가 확정되면 크롤링 조기 종료 (null 이면 끝까지)
+    private static final ScoreRule SCORE_RULE = ScoreRule.deepScanDefault();
+
+    // 디스크 HTTP 캐시 (재실행 시 변경되지 않은 페이지는 다시 받지 않음)
+    private static final Path HTTP_CACHE_DIR = Paths.get(".http-cache");
+    private static final Duration HTTP_CACHE_TTL = Duration.ofDays(1); // 하루 이내 저장본은 확인 요청 없이 사용, 이후엔 조건부 GET
+    private static final long HTTP_CACHE_MAX_BYTES = 2L * 1024 * 1024 * 1024; // 2GB 초과 시 오래 안 쓴 항목부터 삭제
 
     // 진행률 알림 간격 (밀리초)
     private static final long PROGRESS_REPORT_INTERVAL_MS = 5 * 60 * 1000; // 5분마다
@@ -72,21 +70,77 @@ public class Dental3DScannerDetectorDeepCrawling_Timer {
     // 스레드 안전한 카운터
     private final AtomicInteger processedCount = new AtomicInteger(0);
     private final AtomicInteger totalCount = new AtomicInteger(0);
+    private final AtomicInteger dedupedCount = new AtomicInteger(0); // 같은 사이트라 크롤링을 생략한 행 수
+
+    // 요약 통계 (결과를 모아 두지 않고 완료될 때마다 집계)
+    private final ConcurrentHashMap<String, AtomicInteger> levelCounts = new ConcurrentHashMap<>();
+    private final AtomicLong pagesSavedTotal = new AtomicLong(0);
+
+    // 크롤링 중이거나 끝난 사이트 (사이트 키 → 결과). 입력 주소와 리다이렉트 최종 주소 모두 등록
+    private final SiteClaims<Detection3DResult> siteClaims = new SiteClaims<>();
+
+    // 동시 진행 사이트 수 제한기 (수집기의 요청 결과로 허용 수 조절)
+    private final AdaptiveConcurrencyLimiter siteConcurrency = new AdaptiveConcurrencyLimiter("사이트",
+            Math.min(INITIAL_CONCURRENT_SITES, SITE_LIMIT_CAP), MIN_CONCURRENT_SITES, SITE_LIMIT_CAP);
+
+    // 논블로킹 HTTP 수집기 (모든 사이트 작업이 공유, 같은 호스트 요청만 간격 조절, 디스크 캐시 사용)
+    private final PageFetcher pageFetcher = PageFetcher.builder(USER_AGENT, TIMEOUT_MS)
+            .connectTimeoutMs(CONNECT_TIMEOUT_MS)
+            .politeness(new PolitenessScheduler(HOST_REQUESTS_PER_SECOND))
+            .cache(new HttpCache(HTTP_CACHE_DIR, HTTP_CACHE_TTL, HTTP_CACHE_MAX_BYTES))
+            .listener(siteConcurrency)
+            .homepageHedger(new RequestHedger(HOMEPAGE_HEDGE_BUDGET, HOMEPAGE_HEDGE_MIN_DELAY_MS))
+            .build();
+
+    // 수집(I/O) → 파싱/추출(CPU, 코어 수) → 점수 집계 단계 (단계 사이 대기열 크기 제한으로 역압)
+    private final PipelineStage parseStage = new PipelineStage("파싱", PARSE_WORKERS, PARSE_QUEUE_CAPACITY);
+    private final PipelineStage scoreStage = new PipelineStage("집계", 1, SCORE_QUEUE_CAPACITY);
+
+    // 사이트맵으로 서브 페이지 주소 찾기 (수집기 공유)
+    private final SitemapDiscovery sitemapDiscovery = new SitemapDiscovery(pageFetcher, SITEMAP_WAIT_MS);
 
     // 진행률 타이머용
     private volatile boolean isRunning = false;
     private long startTime;
 
     /**
-     * 모든 치과의 3D 스캐너 보유 여부를 멀티스레드 딥 크롤링으로 검사합니다.
+     * 모든 치과의 3D 스캐너 보유 여부를 멀티스레드 딥 크롤링으로 검사합니다. (결과를 목록으로 모아 반환)
      */
     public List<Detection3DResult> scanAllDentalsFor3D(List<DentalInfo> dentalList) {
+        Map<DentalInfo, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < dentalList.size(); i++) {
+            positions.put(dentalList.get(i), i);
+        }
+
+        // 결과 저장용 배열
+        Detection3DResult[] resultsArray = new Detection3DResult[dentalList.size()];
+        scanAllDentalsFor3D(dentalList, (dental, result) -> resultsArray[positions.get(dental)] = result);
+
+        // 배열을 리스트로 변환
+        List<Detection3DResult> results = new ArrayList<>();
+        for (Detection3DResult result : resultsArray) {
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 모든 치과의 3D 스캐너 보유 여부를 멀티스레드 딥 크롤링으로 검사합니다.
+     * 결과는 모아 두지 않고 행마다 완료되는 즉시 sink 로 넘깁니다. (완료 순서, 여러 스레드에서 호출)
+     */
+    public void scanAllDentalsFor3D(List<DentalInfo> dentalList, ResultSink sink) {
         startTime = System.currentTimeMillis(); // 시작 시간 기록
         totalCount.set(dentalList.size());
         processedCount.set(0);
+        dedupedCount.set(0);
+        levelCounts.clear();
+        pagesSavedTotal.set(0);
+        siteClaims.clear();
         isRunning = true;
 
-        System.out.println("🕷️ 3D 스캐너 딥 크롤링 시작 (멀티스레드: " + THREAD_POOL_SIZE + "개)...\n");
+        System.out.println("🕷️ 3D 스캐너 딥 크롤링 시작 (" + describeExecutionMode() + ")...\n");
 
         // 진행률 타이머 시작
         ScheduledExecutorService progressTimer = Executors.newSingleThreadScheduledExecutor();
@@ -95,32 +149,61 @@ public class Dental3DScannerDetectorDeepCrawling_Timer {
                 PROGRESS_REPORT_INTERVAL_MS / 1000, // 이후 5분마다
                 TimeUnit.SECONDS);
 
-        // 스레드풀 생성
-        ExecutorService executor = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
-
-        // 결과 저장용 배열
-        Detection3DResult[] resultsArray = new Detection3DResult[dentalList.size()];
+        // 실행기 생성 (Java 21+ 가상 스레드, 그 외 고정 스레드풀)
+        ExecutorService executor = CrawlExecutors.newSiteExecutor(THREAD_POOL_SIZE);
 
         // CompletableFuture 리스트
         List<CompletableFuture<Void>> futures = new ArrayList<>();
 
-        for (int i = 0; i < dentalList.size(); i++) {
-            final int index = i;
-            final DentalInfo dental = dentalList.get(i);
+        // 같은 사이트(정규화 기준)를 가리키는 행끼리 묶어 사이트당 한 번만 크롤링
+        Map<String, List<Integer>> rowsBySite = groupRowsBySite(dentalList);
+        if (rowsBySite.size() < dentalList.size()) {
+            System.out.printf("🔁 중복 웹사이트 정리: %d행 → %d개 사이트\n\n", dentalList.size(), rowsBySite.size());
+        }
+
+        for (List<Integer> rows : rowsBySite.values()) {
+            final DentalInfo dental = dentalList.get(rows.get(0));
+
+            // 동시 진행 사이트 수 제한 (작업이 끝나야 다음 사이트 제출, 허용 수는 네트워크 상태에 따라 자동 조절)
+            try {
+                siteConcurrency.acquireBlocking();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
 
             CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
                 try {
-                    Detection3DResult result = deepScanSite(dental);
-                    resultsArray[index] = result;
+                    Detection3DResult result;
+                    try {
+                        result = scanSiteOnce(dental);
+                    } catch (Exception e) {
+                        System.err.println("❌ 처리 오류 [" + dental.getName() + "]: " + e.getMessage());
+                        result = createErrorResult(dental, e.getMessage());
+                    }
 
-                    // 진행상황 출력 (스레드 안전)
-                    int currentProgress = processedCount.incrementAndGet();
-                    printProgress(currentProgress, totalCount.get(), dental.getName(), result);
+                    // 같은 사이트를 공유하는 모든 행에 결과 배분
+                    for (int row : rows) {
+                        DentalInfo rowDental = dentalList.get(row);
+                        Detection3DResult rowResult = row == rows.get(0) ? result : result.copyFor(rowDental);
+                        recordStats(rowResult);
+                        if (row != rows.get(0)) {
+                            dedupedCount.incrementAndGet();
+                        }
 
-                } catch (Exception e) {
-                    System.err.println("❌ 처리 오류 [" + dental.getName() + "]: " + e.getMessage());
-                    resultsArray[index] = createErrorResult(dental, e.getMessage());
-                    processedCount.incrementAndGet();
+                        // 진행상황 출력 (스레드 안전)
+                        int currentProgress = processedCount.incrementAndGet();
+                        printProgress(currentProgress, totalCount.get(), rowDental.getName(), rowResult);
+
+                        // 결과 즉시 기록
+                        try {
+                            sink.accept(rowDental, rowResult);
+                        } catch (RuntimeException e) {
+                            System.err.println("❌ 결과 기록 오류 [" + rowDental.getName() + "]: " + e.getMessage());
+                        }
+                    }
+                } finally {
+                    siteConcurrency.release();
                 }
             }, executor);
 
@@ -132,9 +215,7 @@ public class Dental3DScannerDetectorDeepCrawling_Timer {
             CompletableFuture<Void> allTasks = CompletableFuture.allOf(
                     futures.toArray(new CompletableFuture[0])
             );
-            allTasks.get(20, TimeUnit.MINUTES); // 딥 크롤링이므로 최대 20분 대기
-        } catch (TimeoutException e) {
-            System.err.println("⚠️ 일부 작업이 타임아웃되었습니다.");
+            allTasks.get(); // 사이트마다 제한 시간(SITE_TIME_BUDGET)이 있으므로 전체 대기 상한 없음
         } catch (Exception e) {
             System.err.println("❌ 멀티스레드 처리 중 오류: " + e.getMessage());
         } finally {
@@ -152,20 +233,10 @@ public class Dental3DScannerDetectorDeepCrawling_Timer {
             }
         }
 
-        // 배열을 리스트로 변환
-        List<Detection3DResult> results = new ArrayList<>();
-        for (Detection3DResult result : resultsArray) {
-            if (result != null) {
-                results.add(result);
-            }
-        }
-
         long endTime = System.currentTimeMillis();
         long totalDuration = endTime - startTime;
         // 최종 요약 출력
-        printFinalSummary(results, totalDuration);
-
-        return results;
+        printFinalSummary(totalDuration);
     }
 
     /**
@@ -200,14 +271,68 @@ public class Dental3DScannerDetectorDeepCrawling_Timer {
             System.out.printf("✅ 진행: %d/%d (%.1f%%) 완료\n", processed, total, progressPercent);
             System.out.printf("⏱️ 예상 완료까지: %d시간 %d분 남음\n", remainingHours, remainingMinutes);
             System.out.printf("⚡ 현재 처리속도: %.1f개/분\n", (double) processed / (elapsedTime / 60000.0));
+            System.out.printf("⚙️ 대기열: 파싱 %d건, 집계 %d건 (자리 대기 %d건)\n", parseStage.getQueueDepth(),
+                    scoreStage.getQueueDepth(), parseStage.getBlockedSubmitters() + scoreStage.getBlockedSubmitters());
             System.out.println("=".repeat(60) + "\n");
         }
     }
 
+    /**
+     * 웹사이트 정규화 키별로 행 번호를 묶습니다. (입력 순서 유지, 웹사이트가 없는 행은 각자 따로)
+     */
+    private Map<String, List<Integer>> groupRowsBySite(List<DentalInfo> dentalList) {
+        Map<String, List<Integer>> rowsBySite = new LinkedHashMap<>();
+        for (int i = 0; i < dentalList.size(); i++) {
+            String key = UrlCanonicalizer.siteKey(dentalList.get(i).getWebsite());
+            rowsBySite.computeIfAbsent(key != null ? key : "#row" + i, k -> new ArrayList<>()).add(i);
+        }
+        return rowsBySite;
+    }
+
+    /**
+     * 사이트 키를 선점하고 크롤링합니다.
+     * 다른 작업이 이미 같은 사이트를 (리다이렉트 최종 주소 기준으로) 맡았다면 그 결과를 기다려 복사합니다.
+     */
+    private Detection3DResult scanSiteOnce(DentalInfo dental) {
+        CompletableFuture<Detection3DResult> siteFuture = new CompletableFuture<>();
+        Detection3DResult result = null;
+        try {
+            CompletableFuture<Detection3DResult> owner = siteClaims.claim(dental.getWebsite(), siteFuture);
+            if (owner != null) {
+                result = copyOwnerResult(owner, dental, new SiteBudget(SITE_TIME_BUDGET));
+            } else {
+                result = deepScanSite(dental, siteFuture);
+            }
+            return result;
+        } finally {
+            // 기다리는 작업이 멈추지 않도록 항상 완료 (예외 시 오류 결과)
+            siteFuture.complete(result != null ? result : createErrorResult(dental, "사이트 처리 중단"));
+        }
+    }
+
+    /**
+     * 같은 사이트를 먼저 맡은 작업의 결과를 사이트 남은 시간 안에 기다려 이 행용으로 복사합니다.
+     * 시간 안에 끝나지 않으면 (서로의 주소로 리다이렉트하는 사이트 등) 오류 결과.
+     */
+    private Detection3DResult copyOwnerResult(CompletableFuture<Detection3DResult> owner, DentalInfo dental,
+                                              SiteBudget budget) {
+        dedupedCount.incrementAndGet();
+        try {
+            return siteClaims.await(owner, budget).copyFor(dental);
+        } catch (TimeoutException e) {
+            return createErrorResult(dental, "같은 사이트를 맡은 작업이 제한 시간 안에 끝나지 않음");
+        } catch (ExecutionException e) {
+            return createErrorResult(dental, "같은 사이트를 맡은 작업 실패: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return createErrorResult(dental, "사이트 처리 중단");
+        }
+    }
+
     /**
      * 개별 사이트 딥 크롤링
      */
-    private Detection3DResult deepScanSite(DentalInfo dental) {
+    private Detection3DResult deepScanSite(DentalInfo dental, CompletableFuture<Detection3DResult> siteFuture) {
         Detection3DResult result = new Detection3DResult(dental.getName(), dental.getWebsite(), dental.getEmail());
 
         if (dental.getWebsite() == null || dental.getWebsite().trim().isEmpty()) {
@@ -218,78 +343,82 @@ public class Dental3DScannerDetectorDeepCrawling_Timer {
             return result;
         }
 
-        Set<String> visitedPages = ConcurrentHashMap.newKeySet();
-        Queue<String> pagesToVisit = new LinkedList<>();
-        StringBuilder allText = new StringBuilder();
-        List<String> foundEvidence = new ArrayList<>();
+        LongHashSet seenPages = new LongHashSet(); // 방문 예정/완료 URL 지문 (정규화 기준)
+        CrawlFrontier frontier = new CrawlFrontier(MAX_PAGES_PER_SITE - 1); // 메인 페이지 링크 중 우선순위 상위만 보관
+        SiteBudget budget = new SiteBudget(SITE_TIME_BUDGET); // 이 사이트에 허용된 전체 시간
+        AtomicInteger pageCount = new AtomicInteger(0);
+        KeywordRuleSet rules = KeywordRules.current(); // 이 사이트를 검사하는 동안 고정 (도중에 규칙 파일이 바뀌어도 섞이지 않음)
+        SiteScoreAccumulator siteScore = new SiteScoreAccumulator(SCORE_RULE, rules); // 페이지마다 갱신되는 점수
 
         try {
             String baseUrl = dental.getWebsite().trim();
-            pagesToVisit.offer(baseUrl);
+            seenPages.add(UrlCanonicalizer.fingerprint(baseUrl));
 
-            int pageCount = 0;
-            int timeoutCount = 0; // Read timeout 카운터 추가
-            while (!pagesToVisit.isEmpty() && pageCount < MAX_PAGES_PER_SITE) {
-                String currentUrl = pagesToVisit.poll();
+            // 메인 페이지 (오류 시 전체 실패로 처리)
+            FetchedPage homePage;
+            try {
+                homePage = fetchHomepageWithinBudget(baseUrl, budget);
+            } catch (TimeoutException e) {
+                throw e;
+            } catch (Exception e) {
+                System.err.printf("   [DEBUG] 페이지 오류 [%s]: %s\n", baseUrl, e.getMessage());
+                throw new RuntimeException("메인 페이지 접근 실패: " + e.getMessage(), e);
+            }
+            // 리다이렉트 최종 주소를 다른 작업이 이미 맡았다면 그 결과를 공유
+            CompletableFuture<Detection3DResult> owner = siteClaims.claim(homePage.getFinalUrl(), siteFuture);
+            if (owner != null) {
+                return copyOwnerResult(owner, dental, budget);
+            }
 
-                if (visitedPages.contains(currentUrl)) {
-                    continue;
+            String siteUrl = homePage.getFinalUrl(); // 실제로 응답한 주소 (링크 수집 기준)
+            seenPages.add(UrlCanonicalizer.fingerprint(siteUrl));
+            // 사이트맵 탐색은 메인 페이지를 훑는 동안 함께 진행
+            CompletableFuture<List<String>> sitemapPages = sitemapDiscovery.discoverAsync(siteUrl);
+
+            List<HtmlLink> homeLinks = new ArrayList<>();
+            awaitProcessing(scanPage(homePage, siteScore, homeLinks), budget);
+
+            // 메인 페이지 링크 + 사이트맵 주소 → 우선순위 순 서브 페이지 목록
+            collectInternalLinks(homeLinks, siteUrl, frontier, seenPages, rules.getLinkClassifier());
+            collectSitemapLinks(sitemapPages, siteScore, budget, siteUrl, frontier, seenPages, rules.getLinkClassifier());
+            List<String> subPages = new ArrayList<>();
+            while (!frontier.isEmpty() && subPages.size() < MAX_PAGES_PER_SITE - 1) {
+                String url = frontier.poll().getUrl();
+                if (seenPages.add(UrlCanonicalizer.fingerprint(url))) {
+                    subPages.add(url);
                 }
+            }
 
-                visitedPages.add(currentUrl);
-                pageCount++;
-
-                try {
-                    Document doc = Jsoup.connect(currentUrl)
-                            .userAgent(USER_AGENT)
-                            .timeout(TIMEOUT_MS)
-                            .followRedirects(true)
-                            .get();
-
-                    // 페이지 텍스트 수집
-                    String pageText = doc.text().toLowerCase();
-                    allText.append(pageText).append(" ");
-
-                    // 키워드 검사
-                    List<String> foundKeywords = findMatchingKeywords(pageText, SCANNER_3D_KEYWORDS);
-                    if (!foundKeywords.isEmpty()) {
-                        foundEvidence.add(String.format("페이지[%s]: %s",
-                                getPageTitle(doc), String.join(", ", foundKeywords)));
-                    }
-
-                    // 첫 번째 페이지에서만 링크 수집
-                    if (pageCount == 1) {
-                        collectInternalLinks(doc, baseUrl, pagesToVisit, visitedPages);
-                    }
-
-                    // 페이지간 딜레이
-                    Thread.sleep(DELAY_BETWEEN_PAGES_MS);
-
-                } catch (Exception e) {
-                    // 오류 상세 출력
-                    System.err.printf("   [DEBUG] 페이지 오류 [%s]: %s\n", currentUrl, e.getMessage());
-
-                    // Read timeout 체크
-                    if (e.getMessage() != null && e.getMessage().contains("Read timed out")) {
-                        timeoutCount++;
-                        if (timeoutCount >= MAX_TIMEOUT_RETRIES) {
-                            System.err.printf("   [ERROR] Read timeout %d회 초과, 해당 치과 처리 중단\n", MAX_TIMEOUT_RETRIES);
-                            throw new RuntimeException("연속 Read timeout 초과: " + timeoutCount + "회", e);
+            // 서브 페이지 동시 수집 (사이트당 SUBPAGE_FANOUT 개, 호스트당 상한은 예의 스케줄러가 적용)
+            // 목표 신뢰도(EARLY_EXIT_LEVEL)가 확정되면 남은 서브 페이지는 시작하지 않음, 사이트 제한 시간이 지나면 진행 중인 요청도 중단
+            // 호스트가 연속 응답 없음으로 차단되면 (다른 행의 실패 포함) 남은 서브 페이지도 시작하지 않음
+            pageCount.set(1);
+            budget.await(pageFetcher.fetchAllAsync(subPages, SUBPAGE_FANOUT,
+                    () -> budget.isExpired() || pageFetcher.isHostBlocked(siteUrl) || siteScore.hasReached(EARLY_EXIT_LEVEL),
+                    (url, page, error) -> {
+                        pageCount.incrementAndGet();
+                        if (error != null) {
+                            // 서브 페이지 오류는 무시 (응답 없음은 회로 차단기가 호스트 단위로 집계)
+                            System.err.printf("   [DEBUG] 페이지 오류 [%s]: %s\n", url, error.getMessage());
+                            return CompletableFuture.completedFuture(null);
                         }
-                    }
-
-                    // 첫 번째 페이지(메인 페이지) 오류는 전체 실패로 처리
-                    if (pageCount == 1) {
-                        throw new RuntimeException("메인 페이지 접근 실패: " + e.getMessage(), e);
-                    }
+                        // 파싱/집계가 끝나야 이 통로의 다음 요청을 보냄 (파싱이 밀리면 요청도 늦춰짐)
+                        return scanPage(page, siteScore, null);
+                    }));
 
-                    continue; // 서브 페이지 오류만 무시
-                }
+            // 호스트 차단은 새 요청만 멈춤 (차단은 IP 단위라 다른 행의 실패일 수 있음) → 이미 받은 페이지로 판정
+            if (pageFetcher.isHostBlocked(siteUrl)) {
+                System.err.printf("   [WARN] 호스트 연속 응답 없음으로 차단, 남은 서브 페이지 생략 [%s]\n", siteUrl);
             }
 
-            // 최종 점수 계산
-            calculateDeepScanScore(result, allText.toString(), foundEvidence, pageCount);
+            // 최종 점수 기록 (조기 종료 시 생략한 페이지 수 포함)
+            int pagesSaved = siteScore.hasReached(EARLY_EXIT_LEVEL) ? subPages.size() - (pageCount.get() - 1) : 0;
+            siteScore.applyTo(result, pageCount.get(), pagesSaved);
 
+        } catch (TimeoutException e) {
+            // 사이트 제한 시간 초과: 진행 중인 요청은 이미 끊겼으므로 여기까지의 점수로 부분 결과 기록
+            siteScore.applyTo(result, pageCount.get(), 0);
+            markTimedOut(result, pageCount.get());
         } catch (Exception e) {
             result.setHas3DPrinter(false);
             result.setConfidenceLevel("ERROR");
@@ -301,25 +430,101 @@ public class Dental3DScannerDetectorDeepCrawling_Timer {
     }
 
     /**
-     * 내부 링크 수집 (우선순위 기반)
+     * 페이지를 스트리밍으로 훑어 키워드를 사이트 점수에 반영 (DOM 미생성)
+     * 파싱 단계에서 텍스트 키워드 검사와 링크 추출을, 집계 단계에서 사이트 점수 반영을 합니다.
+     *
+     * @param links 링크를 수집할 목록 (필요 없으면 null, 반환된 future 가 끝난 뒤 읽을 것)
      */
-    private void collectInternalLinks(Document doc, String baseUrl, Queue<String> pagesToVisit, Set<String> visitedPages) {
+    private CompletableFuture<Void> scanPage(FetchedPage page, SiteScoreAccumulator siteScore, List<HtmlLink> links) {
+        return parseStage.submit(() -> {
+            SiteScoreAccumulator.PageScan pageScan = siteScore.startPage();
+            page.scan(pageScan::feed, links == null ? null : (href, text) -> links.add(new HtmlLink(href, text)));
+            return pageScan;
+        }).thenCompose(pageScan -> scoreStage.submit(() -> {
+            pageScan.finish();
+            return null;
+        }));
+    }
+
+    /**
+     * 파이프라인 처리가 끝나기를 사이트 남은 시간 안에 기다립니다. (처리 중 오류는 원래 예외로)
+     */
+    private void awaitProcessing(CompletableFuture<Void> processing, SiteBudget budget)
+            throws IOException, TimeoutException, InterruptedException {
+        try {
+            budget.await(processing);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * 사이트 남은 시간 안에 메인 페이지를 가져옵니다. (http/https, www 유무 후보 중 먼저 응답한 페이지)
+     * 시간이 다 되면 연결을 끊고 TimeoutException
+     */
+    private FetchedPage fetchHomepageWithinBudget(String url, SiteBudget budget)
+            throws IOException, TimeoutException, InterruptedException {
+        try {
+            return budget.await(pageFetcher.fetchHomepageAsync(url));
+        } catch (ExecutionException e) {
+            throw PageFetcher.asIOException(e.getCause());
+        }
+    }
+
+    /**
+     * 사이트 제한 시간 초과로 중단된 부분 결과 표시
+     */
+    private void markTimedOut(Detection3DResult result, int pageCount) {
+        result.setConfidenceLevel("TIMEOUT");
+        result.setErrorMessage(String.format("사이트 제한 시간 %d초 초과 (%d페이지까지 검사한 부분 결과)",
+                SITE_TIME_BUDGET.getSeconds(), pageCount));
+        System.err.printf("   [TIMEOUT] %s: %s\n", result.getDentalName(), result.getErrorMessage());
+    }
+
+    /**
+     * 사이트맵 주소 중 주소에 우선 키워드가 있는 페이지를 서브 페이지 후보에 추가합니다.
+     * (링크 텍스트가 없으므로 키워드 없는 주소는 메인 페이지 링크에 맡김, 이미 목표 신뢰도면 기다리지 않음)
+     */
+    private void collectSitemapLinks(CompletableFuture<List<String>> sitemapPages, SiteScoreAccumulator siteScore,
+                                     SiteBudget budget, String siteUrl, CrawlFrontier frontier, LongHashSet seenPages,
+                                     LinkPriorityClassifier linkClassifier)
+            throws TimeoutException, InterruptedException {
+        if (siteScore.hasReached(EARLY_EXIT_LEVEL)) {
+            sitemapPages.cancel(true); // 진행 중인 사이트맵 요청도 취소
+            return;
+        }
+        List<String> urls;
+        try {
+            urls = budget.await(sitemapPages);
+        } catch (ExecutionException e) {
+            return; // 사이트맵 탐색 실패는 무시
+        }
+        List<HtmlLink> links = new ArrayList<>();
+        for (String url : urls) {
+            if (linkClassifier.priorityOf(url, "") > LinkPriorityClassifier.BASE_PRIORITY) {
+                links.add(new HtmlLink(url, ""));
+            }
+        }
+        collectInternalLinks(links, siteUrl, frontier, seenPages, linkClassifier);
+    }
+
+    /**
+     * 내부 링크 수집 (우선순위 기반, frontier 크기를 넘으면 낮은 우선순위부터 밀려남)
+     */
+    private void collectInternalLinks(List<HtmlLink> links, String baseUrl, CrawlFrontier frontier, LongHashSet seenPages,
+                                      LinkPriorityClassifier linkClassifier) {
         try {
             URL base = new URL(baseUrl);
             String baseDomain = base.getHost();
 
-            Elements links = doc.select("a[href]");
-            Map<String, Integer> linkPriorities = new HashMap<>();
-
-            for (Element link : links) {
-                String href = link.attr("abs:href");
-                String linkText = link.text().toLowerCase();
+            for (HtmlLink link : links) {
+                String href = link.getHref();
+                String linkText = link.getText().toLowerCase();
 
 
-                //이미지/문서 파일 제외.
-                if(linkText.endsWith(".jpg") || linkText.endsWith(".jpeg") ||
-                linkText.endsWith(".png") || linkText.endsWith(".gif") ||
-                linkText.endsWith(".pdf") || linkText.endsWith(".doc") || linkText.endsWith(".zip"))
+                //이미지/문서 파일 제외. (주소 확장자 기준, 나머지는 응답 헤더로 거름)
+                if (LinkFilter.isNonHtmlResource(href))
                 {
                     continue;
                 }
@@ -327,7 +532,7 @@ public class Dental3DScannerDetectorDeepCrawling_Timer {
 
 
 
-                if (href.isEmpty() || visitedPages.contains(href)) {
+                if (href.isEmpty() || seenPages.contains(UrlCanonicalizer.fingerprint(href))) {
                     continue;
                 }
 
@@ -342,123 +547,17 @@ public class Dental3DScannerDetectorDeepCrawling_Timer {
                 }
 
                 // 우선순위 계산
-                int priority = calculateLinkPriority(href, linkText);
+                int priority = linkClassifier.priorityOf(href, linkText);
                 if (priority > 0) {
-                    linkPriorities.put(href, priority);
+                    frontier.offer(href, priority, 1);
                 }
             }
 
-            // 우선순위 순으로 정렬하여 큐에 추가
-            linkPriorities.entrySet().stream()
-                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                    .limit(MAX_PAGES_PER_SITE - 1) // 메인페이지 제외
-                    .forEach(entry -> pagesToVisit.offer(entry.getKey()));
-
         } catch (Exception e) {
             // 링크 수집 오류는 무시
         }
     }
 
-    /**
-     * 링크 우선순위 계산
-     */
-    private int calculateLinkPriority(String url, String linkText) {
-        int priority = 0;
-        String urlLower = url.toLowerCase();
-        String textLower = linkText.toLowerCase();
-
-        // 제외할 페이지 체크
-        for (String exclude : EXCLUDE_PAGE_KEYWORDS) {
-            if (urlLower.contains(exclude) || textLower.contains(exclude)) {
-                return 0; // 제외
-            }
-        }
-
-        // 우선순위 페이지 체크
-        for (String keyword : PRIORITY_PAGE_KEYWORDS) {
-            if (urlLower.contains(keyword)) priority += 10;
-            if (textLower.contains(keyword)) priority += 15;
-        }
-
-        // 기본 점수
-        if (priority == 0) priority = 1;
-
-        return priority;
-    }
-
-    /**
-     * 딥 스캔 점수 계산
-     */
-    private void calculateDeepScanScore(Detection3DResult result, String allText,
-                                        List<String> evidenceList, int pageCount) {
-        List<String> foundKeywords = findMatchingKeywords(allText, SCANNER_3D_KEYWORDS);
-        List<String> foundDigital = findMatchingKeywords(allText, DIGITAL_KEYWORDS);
-
-        int score = 0;
-        StringBuilder evidence = new StringBuilder();
-
-        // 3D 스캐너 키워드
-        if (!foundKeywords.isEmpty()) {
-            score += foundKeywords.size() * 12; // 딥 크롤링에서는 점수 조정
-            evidence.append("📱 3D스캐너: ").append(String.join(", ", foundKeywords)).append(" | ");
-        }
-
-        // 디지털 치과 키워드
-        if (!foundDigital.isEmpty()) {
-            score += foundDigital.size() * 4;
-            evidence.append("💻 디지털: ").append(String.join(", ", foundDigital)).append(" | ");
-        }
-
-        // 페이지 다양성 보너스
-        if (evidenceList.size() > 1) {
-            score += evidenceList.size() * 3;
-        }
-
-        evidence.append("📄 검사 페이지: ").append(pageCount).append("개");
-
-        // 신뢰도 판정 (딥 크롤링은 더 엄격하게)
-        if (score >= 20) {
-            result.setHas3DPrinter(true);
-            if (score >= 50) {
-                result.setConfidenceLevel("HIGH");
-            } else if (score >= 35) {
-                result.setConfidenceLevel("MEDIUM");
-            } else {
-                result.setConfidenceLevel("LOW");
-            }
-        } else {
-            result.setHas3DPrinter(false);
-            result.setConfidenceLevel("NONE");
-        }
-
-        result.setScore(score);
-        result.setEvidence(evidence.toString());
-        result.setReason(evidence.length() > 0 ? evidence.toString() :
-                String.format("3D 관련 정보 없음 (%d페이지 검사)", pageCount));
-        result.setErrorMessage("");
-    }
-
-    /**
-     * 키워드 매칭 찾기
-     */
-    private List<String> findMatchingKeywords(String text, String[] keywords) {
-        Set<String> found = new HashSet<>(); // 중복 제거
-        for (String keyword : keywords) {
-            if (text.contains(keyword.toLowerCase())) {
-                found.add(keyword);
-            }
-        }
-        return new ArrayList<>(found);
-    }
-
-    /**
-     * 페이지 제목 추출
-     */
-    private String getPageTitle(Document doc) {
-        String title = doc.title();
-        return title.length() > 20 ? title.substring(0, 20) + "..." : title;
-    }
-
     /**
      * 오류 결과를 생성합니다.
      */
@@ -481,7 +580,9 @@ public class Dental3DScannerDetectorDeepCrawling_Timer {
             System.out.printf("✅ 3D스캐너 발견! 신뢰도: %s (점수: %d)\n",
                     result.getConfidenceLevel(), result.getScore());
         } else {
-            if ("ERROR".equals(result.getConfidenceLevel())) {
+            if ("TIMEOUT".equals(result.getConfidenceLevel())) {
+                System.out.printf("⏱️ 시간 초과 (부분 결과, 점수: %d)\n", result.getScore());
+            } else if ("ERROR".equals(result.getConfidenceLevel())) {
                 System.out.printf("❌ 크롤링 오류\n", result.getErrorMessage());
             } else {
                 System.out.printf("❌ 3D스캐너 없음\n");
@@ -492,11 +593,12 @@ public class Dental3DScannerDetectorDeepCrawling_Timer {
     /**
      * 최종 요약을 출력합니다.
      */
-    private void printFinalSummary(List<Detection3DResult> results, long totalDurationMs) {
-        long high = results.stream().filter(r -> "HIGH".equals(r.getConfidenceLevel())).count();
-        long medium = results.stream().filter(r -> "MEDIUM".equals(r.getConfidenceLevel())).count();
-        long low = results.stream().filter(r -> "LOW".equals(r.getConfidenceLevel())).count();
-        long error = results.stream().filter(r -> "ERROR".equals(r.getConfidenceLevel())).count();
+    private void printFinalSummary(long totalDurationMs) {
+        int completed = processedCount.get();
+        long high = countOf("HIGH");
+        long medium = countOf("MEDIUM");
+        long low = countOf("LOW");
+        long error = countOf("ERROR");
         long total3D = high + medium + low;
 
         long hours = totalDurationMs / 3600000;
@@ -504,18 +606,64 @@ public class Dental3DScannerDetectorDeepCrawling_Timer {
         long seconds = totalDurationMs % 60000 / 1000;
 
         System.out.println("\n" + "═".repeat(60));
-        System.out.println("🎉 3D 스캐너 딥 크롤링 완료! (멀티스레드 " + THREAD_POOL_SIZE + "개)");
-        System.out.printf("📊 전체 검사: %d개 치과\n", results.size());
-        System.out.printf("📱 3D스캐너 보유 추정: %d개 (%.1f%%)\n", total3D, (double)total3D/results.size()*100);
+        System.out.println("🎉 3D 스캐너 딥 크롤링 완료! (" + describeExecutionMode() + ")");
+        System.out.printf("📊 전체 검사: %d개 치과\n", completed);
+        if (completed < totalCount.get()) {
+            System.out.printf("⚠️ 미완료: %d개 치과\n", totalCount.get() - completed);
+        }
+        System.out.printf("📱 3D스캐너 보유 추정: %d개 (%.1f%%)\n", total3D, (double)total3D/completed*100);
         System.out.printf("   - 높은 신뢰도: %d개\n", high);
         System.out.printf("   - 중간 신뢰도: %d개\n", medium);
         System.out.printf("   - 낮은 신뢰도: %d개\n", low);
         if (error > 0) {
             System.out.printf("   - 처리 오류: %d개\n", error);
         }
+        long timedOut = countOf("TIMEOUT");
+        if (timedOut > 0) {
+            System.out.printf("   - 시간 초과 (부분 결과): %d개\n", timedOut);
+        }
+        long pagesSaved = pagesSavedTotal.get();
+        if (pagesSaved > 0) {
+            System.out.printf("⏩ 조기 종료로 생략한 페이지: %d개\n", pagesSaved);
+        }
+        if (dedupedCount.get() > 0) {
+            System.out.printf("🔁 중복 웹사이트로 크롤링 생략: %d개\n", dedupedCount.get());
+        }
+        System.out.println("💾 HTTP 캐시: " + pageFetcher.getCache().describeStats());
+        if (pageFetcher.getRetryCount() > 0) {
+            System.out.printf("🔄 일시적 오류 재시도: %d건\n", pageFetcher.getRetryCount());
+        }
+        System.out.println("🚧 " + pageFetcher.getCircuitBreaker().describeStats());
+        System.out.println("🏁 메인 페이지 " + pageFetcher.getHomepageHedger().describeStats());
+        System.out.println("🗺️ " + sitemapDiscovery.describeStats());
+        System.out.println("🎚️ " + siteConcurrency.describeStats());
+        System.out.println("⚙️ " + parseStage.describeStats());
+        System.out.println("⚙️ " + scoreStage.describeStats());
         System.out.printf("⏱️ 총 소요시간: %d시간 %d분 %d초\n", hours, minutes, seconds);
-        System.out.printf("⚡ 평균 처리속도: %.1f개/분\n", (double)results.size() / (totalDurationMs / 60000.0));
+        System.out.printf("⚡ 평균 처리속도: %.1f개/분\n", (double)completed / (totalDurationMs / 60000.0));
         System.out.println("═".repeat(60));
     }
 
+    /**
+     * 요약 통계에 결과 1건 반영
+     */
+    private void recordStats(Detection3DResult result) {
+        levelCounts.computeIfAbsent(result.getConfidenceLevel(), k -> new AtomicInteger()).incrementAndGet();
+        pagesSavedTotal.addAndGet(result.getPagesSaved());
+    }
+
+    private long countOf(String level) {
+        AtomicInteger count = levelCounts.get(level);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * 실행 방식 설명 (로그용)
+     */
+    private String describeExecutionMode() {
+        return CrawlExecutors.isVirtualThreadAvailable()
+                ? "가상 스레드, 동시 사이트 " + siteConcurrency.getLimit() + "개 (자동 조절, 최대 " + MAX_CONCURRENT_SITES + "개)"
+                : "멀티스레드 " + THREAD_POOL_SIZE + "개, 동시 사이트 " + siteConcurrency.getLimit() + "개 (자동 조절, 최대 " + SITE_LIMIT_CAP + "개)";
+    }
+
 }
@@ -1,52 +1,39 @@
 package org.example.printer3d;
 
+import org.example.printer3d.fetch.AdaptiveConcurrencyLimiter;
+import org.example.printer3d.keyword.KeywordRuleSet;
+import org.example.printer3d.keyword.KeywordRules;
 import org.example.printer3d.model.DentalInfo;
 import org.example.printer3d.model.Detection3DResult;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class Dental3DScannerDetectorMultiThread {
-    // 3D 스캐너 관련 키워드들
-    private static final String[] SCANNER_3D_KEYWORDS = {
-            "3d스캐너", "3d 스캐너", "3d scanning", "3d스캐닝", "3d 스캐닝",
-            "쓰리디스캐너", "쓰리디 스캐너", "삼차원 스캐너",
-            "구강스캐너", "intraoral scanner", "인트라오럴 스캐너",
-            "광학스캐너", "optical scanner", "디지털인상", "digital impression",
-            // 브랜드명
-            "itero", "trios", "cerec", "carestream", "cs3600", "cs3700",
-            "medit", "i500", "i700", "primescan", "sirona",
-            "planmeca", "emerald", "3shape", "shining3d", "aoralscan",
-            "dentapix", "launca", "virtuo vivo",
-            // 기술 방식
-            "confocal", "컨포컬", "structured light", "구조광",
-            "triangulation", "삼각측량", "stereo camera", "스테레오카메라",
-            // 치과 전용
-            "dental scanner", "덴탈 스캐너", "치과용 스캐너", "치과 3d스캐너",
-            "구강내 스캐너", "인상채득", "impression", "석고모형", "plaster model"
-    };
-
-    // 디지털 치과 키워드
-    private static final String[] DIGITAL_KEYWORDS = {
-            "디지털치과", "디지털 치과", "digital dentistry",
-            "스마트치과", "첨단장비", "최신장비", "하이테크",
-            "디지털임플란트", "무인상", "인상없이", "편안한치료",
-            "정밀진단", "cad/cam", "캐드캠", "cadcam", "워크플로우"
-            ,"CAD","CAD cam"
-    };
+    // 점수 규칙: 3D 스캐너 키워드 15점, 디지털 키워드 5점 (규칙 파일에 가중치가 있으면 그 값)
+    private static final int SCANNER_POINTS = 15;
+    private static final int DIGITAL_POINTS = 5;
 
     private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
     private static final int TIMEOUT_MS = 15000;
-    private static final int THREAD_POOL_SIZE = 5;
+    private static final int THREAD_POOL_SIZE = 5; // 동시 요청 수 시작값 (이후 p95 지연/오류율에 따라 자동 조절)
+    private static final int MIN_CONCURRENT_REQUESTS = 1;
+    private static final int MAX_CONCURRENT_REQUESTS = 50; // 스레드풀 크기 (= 자동 조절 상한)
     private static final int DELAY_BETWEEN_REQUESTS_MS = 300; // 스레드당 요청 간격
 
     // 스레드 안전한 카운터
     private final AtomicInteger processedCount = new AtomicInteger(0);
     private final AtomicInteger totalCount = new AtomicInteger(0);
+
+    // 동시 요청 수 제한기 (요청 결과로 허용 수 조절)
+    private final AdaptiveConcurrencyLimiter concurrency = new AdaptiveConcurrencyLimiter("요청",
+            THREAD_POOL_SIZE, MIN_CONCURRENT_REQUESTS, MAX_CONCURRENT_REQUESTS);
     /**
      * 모든 치과의 3D 스캐너 보유 여부를 멀티스레드로 검사합니다.
      */
@@ -54,10 +41,11 @@ public class Dental3DScannerDetectorMultiThread {
         totalCount.set(dentalList.size());
         processedCount.set(0);
 
-        System.out.println("🔍 3D 스캐너 검사 시작 (멀티스레드: " + THREAD_POOL_SIZE + "개)...\n");
+        System.out.println("🔍 3D 스캐너 검사 시작 (동시 요청: " + concurrency.getLimit()
+                + "개, 자동 조절 " + MIN_CONCURRENT_REQUESTS + "~" + MAX_CONCURRENT_REQUESTS + "개)...\n");
 
-        // 스레드풀 생성
-        ExecutorService executor = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+        // 스레드풀 생성 (실제 동시 요청 수는 제한기가 결정)
+        ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS);
 
         // 결과 저장용 ConcurrentHashMap 대신 인덱스 기반 접근을 위해 배열 사용
         Detection3DResult[] resultsArray = new Detection3DResult[dentalList.size()];
@@ -145,12 +133,9 @@ public class Dental3DScannerDetectorMultiThread {
 
         try {
             // 웹사이트 크롤링
-            Document doc = Jsoup.connect(dental.getWebsite())
-                    .userAgent(USER_AGENT)
-                    .timeout(TIMEOUT_MS)
-                    .get();
+            Document doc = fetchDocument(dental.getWebsite());
 
-            String fullText = doc.text().toLowerCase();
+            String fullText = doc.text();
 
             // 키워드 검색 및 점수 계산
             calculateDetectionScore(result, fullText);
@@ -167,25 +152,53 @@ public class Dental3DScannerDetectorMultiThread {
         return result;
     }
 
+    /**
+     * 동시 요청 허가를 얻어 페이지를 가져오고, 지연/상태 코드를 제한기에 알립니다.
+     */
+    private Document fetchDocument(String url) throws IOException, InterruptedException {
+        concurrency.acquireBlocking();
+        long startedAt = System.nanoTime();
+        int statusCode = -1;
+        IOException error = null;
+        try {
+            Document doc = Jsoup.connect(url)
+                    .userAgent(USER_AGENT)
+                    .timeout(TIMEOUT_MS)
+                    .get();
+            statusCode = 200;
+            return doc;
+        } catch (HttpStatusException e) {
+            statusCode = e.getStatusCode();
+            throw e;
+        } catch (IOException e) {
+            error = e;
+            throw e;
+        } finally {
+            concurrency.release();
+            concurrency.onFetchComplete(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), statusCode, error);
+        }
+    }
+
     /**
      * 키워드 기반으로 3D 스캐너 보유 점수를 계산합니다.
      */
     private void calculateDetectionScore(Detection3DResult result, String pageText) {
-        List<String> found3D = findMatchingKeywords(pageText, SCANNER_3D_KEYWORDS);
-        List<String> foundDigital = findMatchingKeywords(pageText, DIGITAL_KEYWORDS);
+        KeywordRuleSet rules = KeywordRules.current();
+        List<String> found3D = rules.matcher(KeywordRuleSet.Category.SCANNER).findMatching(pageText);
+        List<String> foundDigital = rules.matcher(KeywordRuleSet.Category.DIGITAL).findMatching(pageText);
 
         int score = 0;
         StringBuilder evidence = new StringBuilder();
 
         // 3D 스캐너 직접 언급 (가장 중요)
         if (!found3D.isEmpty()) {
-            score += found3D.size() * 15;
+            score += rules.pointsOf(KeywordRuleSet.Category.SCANNER, found3D, SCANNER_POINTS);
             evidence.append("📱 3D스캐너: ").append(String.join(", ", found3D)).append(" | ");
         }
 
         // 디지털 치과 키워드 (보조 지표)
         if (!foundDigital.isEmpty()) {
-            score += foundDigital.size() * 5;
+            score += rules.pointsOf(KeywordRuleSet.Category.DIGITAL, foundDigital, DIGITAL_POINTS);
             evidence.append("💻 디지털: ").append(String.join(", ", foundDigital)).append(" | ");
         }
 
@@ -211,19 +224,6 @@ public class Dental3DScannerDetectorMultiThread {
         result.setErrorMessage("");
     }
 
-    /**
-     * 텍스트에서 키워드 매칭을 찾습니다.
-     */
-    private List<String> findMatchingKeywords(String text, String[] keywords) {
-        List<String> found = new ArrayList<>();
-        for (String keyword : keywords) {
-            if (text.contains(keyword.toLowerCase())) {
-                found.add(keyword);
-            }
-        }
-        return found;
-    }
-
     /**
      * 오류 결과를 생성합니다.
      */
@@ -264,7 +264,7 @@ public class Dental3DScannerDetectorMultiThread {
         long total3D = high + medium + low;
 
         System.out.println("\n" + "═".repeat(60));
-        System.out.println("🎉 3D 스캐너 검사 완료! (멀티스레드 " + THREAD_POOL_SIZE + "개)");
+        System.out.println("🎉 3D 스캐너 검사 완료! (동시 요청 최종 " + concurrency.getLimit() + "개)");
         System.out.printf("📊 전체 검사: %d개 치과\n", results.size());
         System.out.printf("📱 3D스캐너 보유 추정: %d개 (%.1f%%)\n", total3D, (double)total3D/results.size()*100);
         System.out.printf("   - 높은 신뢰도: %d개\n", high);
@@ -273,6 +273,7 @@ public class Dental3DScannerDetectorMultiThread {
         if (error > 0) {
             System.out.printf("   - 처리 오류: %d개\n", error);
         }
+        System.out.println("🎚️ " + concurrency.describeStats());
         System.out.println("═".repeat(60));
     }
 }
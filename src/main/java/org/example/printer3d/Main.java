@@ -1,8 +1,14 @@
 package org.example.printer3d;
 
+import org.example.printer3d.keyword.KeywordRuleSet;
+import org.example.printer3d.keyword.KeywordRules;
 import org.example.printer3d.model.DentalInfo;
 import org.example.printer3d.model.Detection3DResult;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
 
@@ -10,10 +16,18 @@ public class Main {
 
     public static void main(String[] args) {
         Scanner scanner = new Scanner(System.in);
+        boolean resume = Arrays.asList(args).contains("--resume"); // 진행 기록에서 이어하기
+        boolean keepFailed = Arrays.asList(args).contains("--keep-failed"); // 이어하기 시 오류/시간 초과 행도 다시 검사하지 않음
+        boolean cascade = Arrays.asList(args).contains("--cascade"); // 메인 페이지로 먼저 판정, 애매한 곳만 딥 크롤링
+        String rulesPath = optionValue(args, "--rules="); // 키워드 규칙 파일 (실행 중 변경 시 다시 읽음)
 
         try {
             printWelcomeMessage();
 
+            // 키워드 규칙 (파일을 지정하면 실행 중에도 변경을 감시해 교체)
+            KeywordRuleSet rules = rulesPath != null ? KeywordRules.watch(Paths.get(rulesPath)) : KeywordRules.current();
+            System.out.println("📚 키워드 규칙: " + rules.describe() + (rulesPath != null ? " (변경 시 자동 적용)" : ""));
+
             // CSV 파일 경로 입력
             System.out.print("📁 CSV 파일 경로를 입력하세요: ");
             String csvPath = scanner.nextLine().trim();
@@ -36,13 +50,41 @@ public class Main {
 
             System.out.printf("📊 총 %d개 치과 정보 로드 완료\n", dentalList.size());
 
-            // 3D 스캐너 검출기 생성 및 실행
-            Dental3DScannerDetectorDeepCrawling_Timer_Temp detector = new Dental3DScannerDetectorDeepCrawling_Timer_Temp();
-            List<Detection3DResult> results = detector.scanAllDentalsFor3D(dentalList);
-
-            // 결과 저장
+            // 3D 스캐너 검출기 생성 및 실행 (결과는 완료되는 대로 원본 순서에 맞춰 저장)
             String outputPath = generateOutputPath(csvPath);
-            csvProcessor.save3DResultsToCsv(results, outputPath);
+            Path journalPath = Paths.get(generateJournalPath(outputPath));
+            Dental3DScannerDetectorDeepCrawling_Timer_Temp detector = new Dental3DScannerDetectorDeepCrawling_Timer_Temp(cascade);
+            if (cascade) {
+                System.out.println("🪜 캐스케이드 모드: 메인 페이지만으로 확실한 치과는 바로 확정, 나머지만 딥 크롤링");
+            }
+            try (CrawlJournal journal = CrawlJournal.open(journalPath, resume);
+                 CsvResultStreamWriter resultWriter = csvProcessor.openResultWriter(outputPath, dentalList)) {
+
+                // 이어하기: 이전 실행에서 끝난 행은 기록된 결과로 채우고 나머지만 검사
+                // 오류/시간 초과 행은 일시적 실패일 수 있으므로 기본적으로 다시 검사 (--keep-failed 면 기록대로 유지)
+                List<DentalInfo> remaining = new ArrayList<>();
+                int retriedCount = 0;
+                for (DentalInfo dental : dentalList) {
+                    Detection3DResult restored = resume ? journal.restore(dental) : null;
+                    if (restored != null && !keepFailed && isFailed(restored)) {
+                        restored = null;
+                        retriedCount++;
+                    }
+                    if (restored != null) {
+                        resultWriter.accept(dental, restored);
+                    } else {
+                        remaining.add(dental);
+                    }
+                }
+                if (resume) {
+                    System.out.printf("⏯️ 이어하기: 완료된 %d개 치과 건너뜀, 남은 %d개 검사 (오류/시간 초과 재검사 %d개, 기록: %s)\n",
+                            dentalList.size() - remaining.size(), remaining.size(), retriedCount, journalPath);
+                }
+
+                if (!remaining.isEmpty()) {
+                    detector.scanAllDentalsFor3D(remaining, journal.andThen(resultWriter));
+                }
+            }
 
             System.out.printf("\n💾 결과 저장 완료: %s\n", outputPath);
 
@@ -58,9 +100,36 @@ public class Main {
         System.out.println("🖨️ === 치과 3D 스캐너 검출기 ===");
         System.out.println("버전: 1.0.0");
         System.out.println("기능: CSV 파일의 치과 웹사이트에서 3D 스캐너 보유 여부 검사");
+        System.out.println("옵션: --resume (중단된 실행을 진행 기록에서 이어하기, 오류/시간 초과 행은 다시 검사)");
+        System.out.println("      --keep-failed (--resume 시 오류/시간 초과 행도 기록된 결과를 그대로 사용)");
+        System.out.println("      --cascade (메인 페이지로 먼저 판정하고 애매한 치과만 딥 크롤링)");
+        System.out.println("      --rules=파일 (키워드 규칙 파일 지정, 실행 중 수정하면 다음 사이트부터 적용)");
         System.out.println();
     }
 
+    /**
+     * 다시 검사할 실패 결과인지 (오류 또는 사이트 제한 시간 초과로 인한 부분 결과)
+     */
+    private static boolean isFailed(Detection3DResult result) {
+        return "ERROR".equals(result.getConfidenceLevel()) || "TIMEOUT".equals(result.getConfidenceLevel());
+    }
+
+    /**
+     * "--이름=값" 형식 옵션의 값 (없으면 null)
+     */
+    private static String optionValue(String[] args, String prefix) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix) && arg.length() > prefix.length()) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return null;
+    }
+
+    private static String generateJournalPath(String outputPath) {
+        return outputPath.substring(0, outputPath.length() - 4) + ".journal";
+    }
+
     private static String generateOutputPath(String originalPath) {
         if (originalPath.toLowerCase().endsWith(".csv")) {
             return originalPath.substring(0, originalPath.length() - 4) + "_3d_results.csv";
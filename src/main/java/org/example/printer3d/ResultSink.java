@@ -0,0 +1,22 @@
+package org.example.printer3d;
+
+import org.example.printer3d.model.DentalInfo;
+import org.example.printer3d.model.Detection3DResult;
+
+/**
+ * 검출 결과를 완료되는 즉시 받는 곳 (여러 작업 스레드에서 동시에 호출됨)
+ */
+@FunctionalInterface
+public interface ResultSink {
+    void accept(DentalInfo dental, Detection3DResult result);
+
+    /**
+     * 이 곳에 전달한 뒤 next 에도 전달하는 결합 sink
+     */
+    default ResultSink andThen(ResultSink next) {
+        return (dental, result) -> {
+            accept(dental, result);
+            next.accept(dental, result);
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.printer3d.crawl;
+
+import org.example.printer3d.model.UrlWithDepth;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 사이트 하나의 방문 예정 페이지 목록 (크기 제한 우선순위 큐).
+ * 모든 페이지에서 찾은 링크를 하나로 모아 우선순위가 높고 얕은 페이지부터 꺼내며,
+ * 가득 차면 가장 가치가 낮은 링크를 밀어냅니다.
+ * 같은 URL(정규화 기준)이 다시 들어오면 더 높은 우선순위/얕은 깊이로만 갱신합니다.
+ * 스레드 안전하지 않습니다. (사이트 하나를 크롤링하는 스레드 전용)
+ */
+public final class CrawlFrontier {
+
+    // 앞쪽일수록 먼저 방문: 우선순위 높은 순 → 깊이 얕은 순 → 먼저 발견한 순
+    private static final Comparator<Entry> VISIT_ORDER = Comparator
+            .comparingInt((Entry e) -> -e.priority)
+            .thenComparingInt(e -> e.depth)
+            .thenComparingLong(e -> e.sequence);
+
+    private final int maxSize;
+    private final TreeSet<Entry> queue = new TreeSet<>(VISIT_ORDER);
+    private final Map<Long, Entry> pending = new HashMap<>(); // URL 지문 → 대기 중인 항목
+    private long nextSequence = 0;
+    private int evictedCount = 0;
+
+    /**
+     * @param maxSize 대기 목록 최대 크기 (넘으면 우선순위가 가장 낮은 링크부터 제거)
+     */
+    public CrawlFrontier(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize 는 1 이상이어야 합니다: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 링크를 추가합니다. 대기 목록에 들어갔으면 true,
+     * 이미 같거나 더 좋은 조건으로 대기 중이거나 가득 찬 목록의 최하위보다 낮으면 false.
+     */
+    public boolean offer(String url, int priority, int depth) {
+        long fingerprint = UrlCanonicalizer.fingerprint(url);
+        Entry existing = pending.get(fingerprint);
+        if (existing != null) {
+            boolean better = priority > existing.priority || (priority == existing.priority && depth < existing.depth);
+            if (!better) return false;
+            queue.remove(existing);
+            pending.remove(fingerprint);
+        }
+
+        Entry entry = new Entry(url, fingerprint, priority, depth, nextSequence++);
+        if (queue.size() >= maxSize) {
+            Entry lowest = queue.last();
+            if (VISIT_ORDER.compare(entry, lowest) > 0) {
+                return false;
+            }
+            queue.pollLast();
+            pending.remove(lowest.fingerprint);
+            evictedCount++;
+        }
+        queue.add(entry);
+        pending.put(fingerprint, entry);
+        return true;
+    }
+
+    /**
+     * 가장 먼저 방문할 페이지를 꺼냅니다. (비어 있으면 null)
+     */
+    public UrlWithDepth poll() {
+        Entry entry = queue.pollFirst();
+        if (entry == null) return null;
+        pending.remove(entry.fingerprint);
+        return new UrlWithDepth(entry.url, entry.depth);
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * 목록이 가득 차 밀려난 링크 수
+     */
+    public int getEvictedCount() {
+        return evictedCount;
+    }
+
+    private static final class Entry {
+        private final String url;
+        private final long fingerprint;
+        private final int priority;
+        private final int depth;
+        private final long sequence; // 발견 순서 (같은 조건이면 먼저 발견한 링크 우선)
+
+        private Entry(String url, long fingerprint, int priority, int depth, long sequence) {
+            this.url = url;
+            this.fingerprint = fingerprint;
+            this.priority = priority;
+            this.depth = depth;
+            this.sequence = sequence;
+        }
+    }
+}
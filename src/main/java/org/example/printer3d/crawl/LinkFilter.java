@@ -0,0 +1,43 @@
+package org.example.printer3d.crawl;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 수집할 가치가 없는 링크 거르기.
+ * 링크 주소의 경로 확장자만 보고 이미지/문서/압축/동영상 파일을 미리 제외합니다. (쿼리, 프래그먼트 무시)
+ * 확장자로 알 수 없는 경우는 요청 단계에서 응답 헤더(Content-Type/Content-Length)로 다시 거릅니다.
+ */
+public final class LinkFilter {
+
+    // HTML 이 아닌 것이 확실한 확장자 (소문자)
+    private static final Set<String> NON_HTML_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "jpg", "jpeg", "png", "gif", "webp", "svg", "bmp", "ico",
+            "pdf", "doc", "docx", "xls", "xlsx", "ppt", "pptx", "hwp",
+            "zip", "rar", "7z", "exe",
+            "mp4", "avi", "mov", "wmv", "mp3", "wav"
+    ));
+
+    private LinkFilter() {
+    }
+
+    /**
+     * 링크 주소가 이미지/문서 등 HTML 이 아닌 파일을 가리키는지
+     */
+    public static boolean isNonHtmlResource(String href) {
+        int end = href.length();
+        int query = href.indexOf('?');
+        if (query >= 0) end = query;
+        int fragment = href.indexOf('#');
+        if (fragment >= 0 && fragment < end) end = fragment;
+
+        int slash = href.lastIndexOf('/', end - 1);
+        int dot = href.lastIndexOf('.', end - 1);
+        if (dot <= slash || dot == end - 1) {
+            return false;
+        }
+        return NON_HTML_EXTENSIONS.contains(href.substring(dot + 1, end).toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.printer3d.crawl;
+
+/**
+ * long 값 전용 오픈 어드레싱(선형 탐사) 해시 집합.
+ * 원소마다 객체를 만들지 않으므로 URL 문자열 집합보다 메모리가 훨씬 적게 듭니다. (원소당 약 16바이트)
+ * 삭제는 지원하지 않으며, 스레드 안전하지 않습니다. (사이트 하나를 크롤링하는 스레드 전용)
+ */
+public final class LongHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final long EMPTY = 0L; // 빈 칸 표시 (값 0 은 hasZero 로 따로 관리)
+
+    private long[] table;
+    private int mask;
+    private int size;
+    private boolean hasZero;
+
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize 예상 원소 수 (부족하면 자동 확장)
+     */
+    public LongHashSet(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        table = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * 값을 추가합니다. 새로 추가되었으면 true, 이미 있었으면 false.
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (hasZero) return false;
+            hasZero = true;
+            size++;
+            return true;
+        }
+
+        int index = indexOf(value, mask);
+        while (table[index] != EMPTY) {
+            if (table[index] == value) return false;
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        size++;
+
+        // 적재율 50% 초과 시 확장 (선형 탐사 길이 유지)
+        if (size * 2 > table.length) {
+            resize();
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) return hasZero;
+
+        int index = indexOf(value, mask);
+        while (table[index] != EMPTY) {
+            if (table[index] == value) return true;
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void resize() {
+        long[] old = table;
+        table = new long[old.length << 1];
+        mask = table.length - 1;
+        for (long value : old) {
+            if (value == EMPTY) continue;
+            int index = indexOf(value, mask);
+            while (table[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            table[index] = value;
+        }
+    }
+
+    private static int indexOf(long value, int mask) {
+        long h = value * 0x9E3779B97F4A7C15L; // 지문이 아닌 값이 들어와도 고르게 분산
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.printer3d.crawl;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 사이트 하나에 허용하는 전체 크롤링 시간 (벽시계 기준).
+ * 생성 시점부터 시간이 흐르며, 남은 시간 안에 끝나지 않은 작업은 취소해 연결을 끊습니다.
+ */
+public final class SiteBudget {
+
+    private final Duration budget;
+    private final long deadlineNanos;
+
+    public SiteBudget(Duration budget) {
+        this.budget = budget;
+        this.deadlineNanos = System.nanoTime() + budget.toNanos();
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public Duration getBudget() {
+        return budget;
+    }
+
+    /**
+     * 남은 시간 동안 future 를 기다립니다. 시간이 다 되면 future 를 취소하고 TimeoutException 을 던집니다.
+     */
+    public <T> T await(CompletableFuture<T> future) throws TimeoutException, ExecutionException, InterruptedException {
+        try {
+            return future.get(Math.max(0, remainingNanos()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.printer3d.crawl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 사이트 키({@link UrlCanonicalizer#siteKey}) 선점 표.
+ * 같은 사이트를 가리키는 행이 여럿이면 (입력 주소 또는 리다이렉트 최종 주소 기준) 먼저 선점한 작업만 크롤링하고,
+ * 나머지는 그 결과를 기다려 복사합니다.
+ * 기다림은 기다리는 쪽의 사이트 제한 시간 안으로 제한하므로, 서로의 주소로 리다이렉트하는 두 사이트처럼
+ * 서로를 기다리게 되어도 멈추지 않고 제한 시간에 끝납니다.
+ *
+ * @param <R> 사이트 검사 결과
+ */
+public final class SiteClaims<R> {
+
+    private final ConcurrentHashMap<String, CompletableFuture<R>> ownersByKey = new ConcurrentHashMap<>();
+
+    /**
+     * url 의 사이트 키를 future 로 선점합니다.
+     * 다른 작업이 이미 선점했으면 그 작업의 future 를, 새로 선점했거나 이미 내 것이거나 주소가 없으면 null 을 반환합니다.
+     */
+    public CompletableFuture<R> claim(String url, CompletableFuture<R> future) {
+        String key = UrlCanonicalizer.siteKey(url);
+        if (key == null) {
+            return null;
+        }
+        CompletableFuture<R> owner = ownersByKey.putIfAbsent(key, future);
+        return owner == null || owner == future ? null : owner;
+    }
+
+    /**
+     * 선점한 작업의 결과를 budget 남은 시간 동안 기다립니다. 시간이 다 되면 TimeoutException.
+     * 시간 초과 시 취소되는 것은 이 대기용 복사본뿐이라 선점한 작업과 다른 대기자에게는 영향이 없습니다.
+     */
+    public R await(CompletableFuture<R> owner, SiteBudget budget)
+            throws TimeoutException, ExecutionException, InterruptedException {
+        return budget.await(owner.thenApply(result -> result));
+    }
+
+    public void clear() {
+        ownersByKey.clear();
+    }
+}
@@ -0,0 +1,273 @@
+package org.example.printer3d.crawl;
+
+import org.example.printer3d.fetch.FetchedPage;
+import org.example.printer3d.fetch.PageFetcher;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 사이트맵으로 서브 페이지 주소 찾기.
+ * robots.txt 의 Sitemap 항목과 /sitemap.xml 을 동시에 요청하고, 사이트맵 인덱스면 하위 사이트맵을 한 단계 더 가져옵니다.
+ * XML 은 DOM 을 만들지 않고 StAX 로 훑어 &lt;loc&gt; 값만 모읍니다. (DTD/외부 엔티티 미지원)
+ * 사이트맵이 없거나 XML 이 아니면(홈페이지로 돌려보내는 사이트 등) 빈 목록으로 끝나며 오류로 취급하지 않습니다.
+ * 압축된 사이트맵(.xml.gz)은 요청 단계에서 HTML 이 아닌 콘텐츠로 걸러지므로 요청하지 않습니다.
+ * 탐색이 끝나면 (시간 초과, 호출자 취소 포함) 아직 진행 중인 robots.txt/사이트맵 요청은 연결까지 취소합니다.
+ * 스레드 안전하며 수집기 하나가 공유합니다.
+ */
+public final class SitemapDiscovery {
+
+    private static final int MAX_SITEMAP_FILES = 5;   // 사이트당 요청하는 사이트맵 파일 수 상한 (인덱스 하위 포함)
+    private static final int MAX_URLS_PER_SITE = 2000; // 사이트당 모으는 페이지 주소 수 상한
+    private static final String ROBOTS_SITEMAP_PREFIX = "sitemap:";
+
+    private static final XMLInputFactory XML_FACTORY = newXmlFactory();
+
+    private final PageFetcher fetcher;
+    private final long maxWaitMs;
+
+    // 통계
+    private final AtomicInteger sitesWithSitemap = new AtomicInteger(0);
+    private final AtomicLong urlsFound = new AtomicLong(0);
+
+    /**
+     * @param maxWaitMs 사이트 하나의 사이트맵 탐색에 기다리는 최대 시간 (넘으면 빈 목록)
+     */
+    public SitemapDiscovery(PageFetcher fetcher, long maxWaitMs) {
+        this.fetcher = fetcher;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    /**
+     * 사이트맵에 나온 페이지 주소 (사이트맵 순서, 중복 제거). 실패/시간 초과 시 빈 목록.
+     * 반환된 future 를 취소하면 (사이트 제한 시간 초과, 조기 종료 등) 진행 중인 요청도 취소됩니다.
+     *
+     * @param siteUrl 메인 페이지 주소 (리다이렉트 최종 주소 권장)
+     */
+    public CompletableFuture<List<String>> discoverAsync(String siteUrl) {
+        String origin = originOf(siteUrl);
+        if (origin == null) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        String defaultSitemap = origin + "/sitemap.xml";
+        Discovery discovery = new Discovery();
+
+        CompletableFuture<List<String>> declared = discovery.fetch(origin + "/robots.txt")
+                .thenApply(SitemapDiscovery::parseRobots)
+                .exceptionally(e -> Collections.emptyList());
+        CompletableFuture<Sitemap> fallback = discovery.fetchSitemap(defaultSitemap);
+
+        declared.thenCompose(robotsSitemaps -> {
+            // robots.txt 에 적힌 사이트맵 + 기본 위치 (이미 요청 중)
+            List<CompletableFuture<Sitemap>> first = new ArrayList<>();
+            first.add(fallback);
+            for (String sitemapUrl : robotsSitemaps) {
+                if (first.size() >= MAX_SITEMAP_FILES) break;
+                if (!sitemapUrl.equals(defaultSitemap)) {
+                    first.add(discovery.fetchSitemap(sitemapUrl));
+                }
+            }
+            return allOf(first).thenCompose(sitemaps -> {
+                // 사이트맵 인덱스면 하위 사이트맵을 남은 요청 수만큼 한 단계 더
+                Set<String> pages = new LinkedHashSet<>();
+                List<CompletableFuture<Sitemap>> children = new ArrayList<>();
+                int remaining = MAX_SITEMAP_FILES - first.size();
+                for (Sitemap sitemap : sitemaps) {
+                    if (!sitemap.index) {
+                        addAll(pages, sitemap.locations);
+                        continue;
+                    }
+                    for (String child : sitemap.locations) {
+                        if (remaining-- <= 0) break;
+                        children.add(discovery.fetchSitemap(child));
+                    }
+                }
+                return allOf(children).thenApply(childSitemaps -> {
+                    for (Sitemap child : childSitemaps) {
+                        if (!child.index) addAll(pages, child.locations);
+                    }
+                    return (List<String>) new ArrayList<>(pages);
+                });
+            });
+        }).thenApply(pages -> {
+            if (!pages.isEmpty()) {
+                sitesWithSitemap.incrementAndGet();
+                urlsFound.addAndGet(pages.size());
+            }
+            return pages;
+        }).whenComplete((pages, error) -> discovery.result.complete(error == null ? pages : Collections.emptyList()));
+
+        discovery.result.whenComplete((pages, error) -> discovery.cancelFetches());
+        return discovery.result.completeOnTimeout(Collections.emptyList(), maxWaitMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 로그용 통계 요약
+     */
+    public String describeStats() {
+        return String.format("사이트맵 발견 %d곳 (페이지 주소 %d개)", sitesWithSitemap.get(), urlsFound.get());
+    }
+
+    /**
+     * 사이트 하나의 탐색. 보낸 요청을 모아 두었다가 탐색이 끝나면 남은 요청을 취소합니다.
+     */
+    private final class Discovery {
+        final CompletableFuture<List<String>> result = new CompletableFuture<>();
+        private final Set<CompletableFuture<FetchedPage>> fetches = ConcurrentHashMap.newKeySet();
+
+        CompletableFuture<FetchedPage> fetch(String url) {
+            CompletableFuture<FetchedPage> fetch = fetcher.fetchAsync(url);
+            fetches.add(fetch);
+            if (result.isDone()) {
+                fetch.cancel(true); // 이미 끝난 탐색 (시간 초과 직후 시작된 하위 사이트맵 등)
+            }
+            fetch.whenComplete((page, error) -> fetches.remove(fetch));
+            return fetch;
+        }
+
+        CompletableFuture<Sitemap> fetchSitemap(String url) {
+            if (url.toLowerCase(Locale.ROOT).endsWith(".gz")) {
+                return CompletableFuture.completedFuture(Sitemap.EMPTY);
+            }
+            return fetch(url)
+                    .thenApply(SitemapDiscovery::parseSitemap)
+                    .exceptionally(e -> Sitemap.EMPTY);
+        }
+
+        void cancelFetches() {
+            for (CompletableFuture<FetchedPage> fetch : fetches) {
+                fetch.cancel(true);
+            }
+        }
+    }
+
+    private static CompletableFuture<List<Sitemap>> allOf(List<CompletableFuture<Sitemap>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            List<Sitemap> results = new ArrayList<>(futures.size());
+            for (CompletableFuture<Sitemap> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        });
+    }
+
+    private static void addAll(Set<String> pages, List<String> locations) {
+        for (String location : locations) {
+            if (pages.size() >= MAX_URLS_PER_SITE) return;
+            pages.add(location);
+        }
+    }
+
+    /**
+     * robots.txt 의 "Sitemap: URL" 줄 (대소문자 무시, 위치 무관)
+     */
+    static List<String> parseRobots(FetchedPage page) {
+        List<String> sitemaps = new ArrayList<>();
+        String text = new String(page.getBody(), StandardCharsets.UTF_8);
+        for (String line : text.split("\r?\n|\r")) {
+            String trimmed = line.trim();
+            if (trimmed.length() > ROBOTS_SITEMAP_PREFIX.length()
+                    && trimmed.regionMatches(true, 0, ROBOTS_SITEMAP_PREFIX, 0, ROBOTS_SITEMAP_PREFIX.length())) {
+                String url = trimmed.substring(ROBOTS_SITEMAP_PREFIX.length()).trim();
+                if (url.startsWith("http://") || url.startsWith("https://")) {
+                    sitemaps.add(url);
+                }
+            }
+        }
+        return sitemaps;
+    }
+
+    /**
+     * &lt;urlset&gt; 이면 페이지 주소, &lt;sitemapindex&gt; 이면 하위 사이트맵 주소 목록.
+     * 루트가 둘 다 아니거나 XML 이 아니면 빈 결과.
+     */
+    static Sitemap parseSitemap(FetchedPage page) {
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_FACTORY.createXMLStreamReader(new ByteArrayInputStream(page.getBody()));
+            boolean index = false;
+            boolean rootSeen = false;
+            List<String> locations = new ArrayList<>();
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) continue;
+                String name = reader.getLocalName();
+                if (!rootSeen) {
+                    rootSeen = true;
+                    if ("sitemapindex".equals(name)) {
+                        index = true;
+                    } else if (!"urlset".equals(name)) {
+                        return Sitemap.EMPTY;
+                    }
+                } else if ("loc".equals(name)) {
+                    String location = reader.getElementText().trim();
+                    if (!location.isEmpty()) {
+                        locations.add(location);
+                        if (locations.size() >= MAX_URLS_PER_SITE) break;
+                    }
+                }
+            }
+            return new Sitemap(index, locations);
+        } catch (XMLStreamException | RuntimeException e) {
+            return Sitemap.EMPTY; // XML 이 아님 (HTML 오류 페이지 등)
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * scheme://host[:port] (URL 이 아니면 null)
+     */
+    private static String originOf(String siteUrl) {
+        try {
+            URL url = new URL(siteUrl.trim());
+            return url.getProtocol() + "://" + url.getHost() + (url.getPort() == -1 ? "" : ":" + url.getPort());
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    private static XMLInputFactory newXmlFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * 사이트맵 파일 하나의 파싱 결과
+     */
+    static final class Sitemap {
+        static final Sitemap EMPTY = new Sitemap(false, Collections.emptyList());
+
+        final boolean index;           // true 면 locations 가 하위 사이트맵 주소
+        final List<String> locations;
+
+        Sitemap(boolean index, List<String> locations) {
+            this.index = index;
+            this.locations = locations;
+        }
+    }
+}
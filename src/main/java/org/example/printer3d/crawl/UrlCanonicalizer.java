@@ -0,0 +1,165 @@
+package org.example.printer3d.crawl;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 방문 여부 판단용 URL 정규화 + 64비트 지문.
+ * 같은 페이지를 가리키는데 모양만 다른 URL 을 하나로 취급합니다.
+ * (프래그먼트, 기본 포트, 대소문자 다른 호스트, 끝 슬래시, 쿼리 순서, 세션 ID/추적 파라미터, ./.. 경로)
+ * 실제 요청은 원래 URL 로 보내고, 정규화 결과는 중복 판정에만 사용합니다.
+ */
+public final class UrlCanonicalizer {
+
+    // 페이지 내용과 무관한 쿼리 파라미터 (소문자)
+    private static final Set<String> IGNORED_PARAMS = new HashSet<>(Arrays.asList(
+            "jsessionid", "phpsessid", "sid", "sessionid", "session_id", "aspsessionid", "cfid", "cftoken",
+            "fbclid", "gclid", "_ga"
+    ));
+    private static final String TRACKING_PARAM_PREFIX = "utm_";
+
+    // 사이트 키 계산 시 루트와 같은 것으로 보는 기본 문서
+    private static final Pattern INDEX_DOCUMENT = Pattern.compile("/(index|default)\\.(html?|php|asp|aspx|jsp)$",
+            Pattern.CASE_INSENSITIVE);
+
+    private UrlCanonicalizer() {
+    }
+
+    /**
+     * 정규화된 URL 문자열. URL 로 해석되지 않으면 앞뒤 공백만 제거해 반환합니다.
+     */
+    public static String canonicalize(String url) {
+        String trimmed = url.trim();
+        URL parsed;
+        try {
+            parsed = new URL(trimmed);
+        } catch (MalformedURLException e) {
+            return trimmed;
+        }
+
+        String scheme = parsed.getProtocol().toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(trimmed.length());
+        sb.append(scheme).append("://").append(parsed.getHost().toLowerCase(Locale.ROOT));
+
+        int port = parsed.getPort();
+        if (port != -1 && port != parsed.getDefaultPort()) {
+            sb.append(':').append(port);
+        }
+
+        sb.append(normalizePath(parsed.getPath()));
+
+        String query = normalizeQuery(parsed.getQuery());
+        if (!query.isEmpty()) {
+            sb.append('?').append(query);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 입력 CSV 의 웹사이트 주소를 "같은 사이트" 판정용 키로 바꿉니다. (주소가 비어 있으면 null)
+     * 스킴, www., 기본 문서(index.html 등), 끝 슬래시를 무시하므로 http://www.a.com/ 과 a.com/index.html 은 같은 키가 됩니다.
+     * 경로는 유지하므로 blog.naver.com/a 와 blog.naver.com/b 는 다른 사이트로 취급합니다.
+     */
+    public static String siteKey(String website) {
+        if (website == null || website.trim().isEmpty()) {
+            return null;
+        }
+        String trimmed = website.trim();
+        if (!trimmed.contains("://")) {
+            trimmed = "http://" + trimmed;
+        }
+
+        String canonical = canonicalize(trimmed);
+        int schemeEnd = canonical.indexOf("://");
+        String key = schemeEnd >= 0 ? canonical.substring(schemeEnd + 3) : canonical;
+        if (key.startsWith("www.")) {
+            key = key.substring(4);
+        }
+
+        int queryStart = key.indexOf('?');
+        String path = queryStart >= 0 ? key.substring(0, queryStart) : key;
+        String query = queryStart >= 0 ? key.substring(queryStart) : "";
+        path = INDEX_DOCUMENT.matcher(path).replaceFirst("");
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return path + query;
+    }
+
+    /**
+     * 정규화된 URL 의 64비트 지문 (FNV-1a + 비트 섞기)
+     */
+    public static long fingerprint(String url) {
+        String canonical = canonicalize(url);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < canonical.length(); i++) {
+            hash ^= canonical.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        // 하위 비트 분포 개선 (MurmurHash3 fmix64)
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * 경로 매개변수(;jsessionid=...) 제거, ./.. 정리, 끝 슬래시 제거 (루트는 "/")
+     */
+    private static String normalizePath(String path) {
+        int semicolon = path.indexOf(';');
+        if (semicolon >= 0) {
+            path = path.substring(0, semicolon);
+        }
+        if (path.isEmpty()) {
+            return "/";
+        }
+
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty() || ".".equals(segment)) {
+                continue;
+            }
+            if ("..".equals(segment)) {
+                if (!segments.isEmpty()) segments.remove(segments.size() - 1);
+                continue;
+            }
+            segments.add(segment);
+        }
+        if (segments.isEmpty()) {
+            return "/";
+        }
+        return "/" + String.join("/", segments);
+    }
+
+    /**
+     * 무시할 파라미터 제거 후 정렬 (값이 같은 파라미터 순서만 다른 URL 을 하나로)
+     */
+    private static String normalizeQuery(String query) {
+        if (query == null || query.isEmpty()) {
+            return "";
+        }
+        List<String> params = new ArrayList<>();
+        for (String param : query.split("&")) {
+            if (param.isEmpty()) continue;
+            int eq = param.indexOf('=');
+            String name = (eq >= 0 ? param.substring(0, eq) : param).toLowerCase(Locale.ROOT);
+            if (IGNORED_PARAMS.contains(name) || name.startsWith(TRACKING_PARAM_PREFIX)) {
+                continue;
+            }
+            params.add(param);
+        }
+        Collections.sort(params);
+        return String.join("&", params);
+    }
+}
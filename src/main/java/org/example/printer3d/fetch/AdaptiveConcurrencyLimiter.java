@@ -0,0 +1,185 @@
+package org.example.printer3d.fetch;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 네트워크 상태에 맞춰 동시 진행 수를 스스로 조절하는 제한기 (AIMD).
+ * 요청 결과를 구간(window) 단위로 모아, p95 지연과 오류/429 비율이 건강하면 허용 수를 늘리고
+ * 나빠지면 곱셈으로 줄입니다. 처음에는 2배씩 늘리다가(slow start) 첫 축소 이후부터는 1씩 늘립니다.
+ * 지연 기준은 지금까지 가장 좋았던 구간의 p95 이며, 네트워크가 바뀌어도 따라가도록 조금씩 완화됩니다.
+ */
+public class AdaptiveConcurrencyLimiter implements FetchListener {
+
+    private static final int MIN_WINDOW_SAMPLES = 20;   // 판단에 필요한 최소 표본 수
+    private static final int MAX_WINDOW_SAMPLES = 200;  // 구간당 최대 표본 수 (허용 수가 커도 판단이 너무 늦지 않도록)
+    private static final double LATENCY_TOLERANCE = 2.0;    // p95 가 기준의 2배를 넘으면 혼잡
+    private static final double MAX_ERROR_RATE = 0.10;      // 오류(연결 실패, 5xx) 10% 초과 시 혼잡
+    private static final double MAX_THROTTLE_RATE = 0.01;   // 429/503 1% 초과 시 혼잡
+    private static final double BACKOFF_RATIO = 0.5;        // 혼잡 시 허용 수 절반으로
+    private static final double BASELINE_DRIFT = 1.05;      // 구간마다 지연 기준 5% 완화
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final AsyncSemaphore permits;
+
+    // 현재 구간 표본 (this 로 동기화)
+    private final long[] latencies = new long[MAX_WINDOW_SAMPLES];
+    private int sampleCount = 0;
+    private int errorCount = 0;
+    private int throttledCount = 0;
+    private boolean saturated = false; // 구간 중 허용 수를 모두 쓴 적이 있는지 (여유가 있으면 늘려도 의미 없음)
+    private boolean slowStart = true;
+    private double baselineP95 = Double.MAX_VALUE;
+
+    // 지표
+    private volatile long lastP95Ms = 0;
+    private volatile int peakLimit;
+    private final AtomicInteger increases = new AtomicInteger(0);
+    private final AtomicInteger decreases = new AtomicInteger(0);
+    private final AtomicInteger totalSamples = new AtomicInteger(0);
+    private final AtomicInteger totalErrors = new AtomicInteger(0);
+    private final AtomicInteger totalThrottled = new AtomicInteger(0);
+
+    /**
+     * @param name         로그 표시용 이름
+     * @param initialLimit 시작 허용 수
+     * @param minLimit     줄어들 수 있는 하한
+     * @param maxLimit     늘어날 수 있는 상한
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format(
+                    "1 <= min(%d) <= initial(%d) <= max(%d) 이어야 합니다.", minLimit, initialLimit, maxLimit));
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.permits = new AsyncSemaphore(initialLimit);
+        this.peakLimit = initialLimit;
+    }
+
+    /**
+     * 허가 1개를 요청합니다. 반환된 future 가 완료되면 허가를 얻은 것이며, 끝나면 {@link #release()} 해야 합니다.
+     */
+    public CompletableFuture<Void> acquire() {
+        CompletableFuture<Void> permit = permits.acquire();
+        if (!permit.isDone() || permits.getInUse() >= permits.getLimit()) {
+            markSaturated();
+        }
+        return permit;
+    }
+
+    /**
+     * 허가를 얻을 때까지 대기합니다. (플랫폼 스레드 작업 제출 루프용)
+     */
+    public void acquireBlocking() throws InterruptedException {
+        try {
+            acquire().get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * 요청 1건의 결과를 반영합니다. 구간이 차면 허용 수를 조정합니다.
+     */
+    @Override
+    public void onFetchComplete(long latencyMs, int statusCode, Throwable error) {
+        boolean throttled = statusCode == 429 || statusCode == 503;
+        boolean failed = error != null || (statusCode >= 500 && !throttled);
+        totalSamples.incrementAndGet();
+        if (throttled) totalThrottled.incrementAndGet();
+        if (failed) totalErrors.incrementAndGet();
+
+        synchronized (this) {
+            latencies[sampleCount++] = latencyMs;
+            if (throttled) throttledCount++;
+            if (failed) errorCount++;
+
+            int windowSize = Math.max(MIN_WINDOW_SAMPLES, Math.min(MAX_WINDOW_SAMPLES, permits.getLimit()));
+            if (sampleCount >= windowSize) {
+                adjust();
+            }
+        }
+    }
+
+    /**
+     * 현재 허용 수
+     */
+    public int getLimit() {
+        return permits.getLimit();
+    }
+
+    public int getInFlight() {
+        return permits.getInUse();
+    }
+
+    /**
+     * 로그용 지표 요약
+     */
+    public String describeStats() {
+        int samples = totalSamples.get();
+        return String.format("%s 동시성 현재 %d (최대 %d, 범위 %d~%d) | 증가 %d회, 감소 %d회 | 최근 p95 %dms | 요청 %d건 중 오류 %.1f%%, 429/503 %.1f%%",
+                name, permits.getLimit(), peakLimit, minLimit, maxLimit, increases.get(), decreases.get(), lastP95Ms,
+                samples, percent(totalErrors.get(), samples), percent(totalThrottled.get(), samples));
+    }
+
+    private synchronized void markSaturated() {
+        saturated = true;
+    }
+
+    /**
+     * 구간 판단 (this 잠금 상태에서 호출)
+     */
+    private void adjust() {
+        long[] window = Arrays.copyOf(latencies, sampleCount);
+        Arrays.sort(window);
+        long p95 = window[(int) Math.ceil(window.length * 0.95) - 1];
+        double errorRate = (double) errorCount / sampleCount;
+        double throttleRate = (double) throttledCount / sampleCount;
+        lastP95Ms = p95;
+
+        int limit = permits.getLimit();
+        boolean congested = throttleRate > MAX_THROTTLE_RATE || errorRate > MAX_ERROR_RATE
+                || p95 > baselineP95 * LATENCY_TOLERANCE;
+
+        if (congested) {
+            int newLimit = Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+            slowStart = false;
+            if (newLimit < limit) {
+                permits.setLimit(newLimit);
+                decreases.incrementAndGet();
+                System.out.printf("📉 %s 동시성 축소 %d → %d (p95 %dms / 기준 %.0fms, 오류 %.0f%%, 429/503 %.0f%%)\n",
+                        name, limit, newLimit, p95, baselineP95, errorRate * 100, throttleRate * 100);
+            }
+        } else {
+            baselineP95 = Math.min(baselineP95, p95);
+            if (saturated && limit < maxLimit) {
+                int newLimit = Math.min(maxLimit, slowStart ? limit * 2 : limit + 1);
+                permits.setLimit(newLimit);
+                increases.incrementAndGet();
+                peakLimit = Math.max(peakLimit, newLimit);
+            }
+        }
+        if (baselineP95 != Double.MAX_VALUE) {
+            baselineP95 *= BASELINE_DRIFT;
+        }
+
+        sampleCount = 0;
+        errorCount = 0;
+        throttledCount = 0;
+        saturated = permits.getWaiting() > 0;
+    }
+
+    private static double percent(int count, int total) {
+        return total == 0 ? 0 : count * 100.0 / total;
+    }
+}
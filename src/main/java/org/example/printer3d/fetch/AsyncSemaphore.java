@@ -0,0 +1,89 @@
+package org.example.printer3d.fetch;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 스레드를 막지 않는 세마포어.
+ * 허가가 없으면 대기열에 CompletableFuture 를 넣어 두고, 반납될 때 순서대로 완료시킵니다.
+ */
+public class AsyncSemaphore {
+
+    private final Queue<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int limit;
+    private int inUse;
+
+    public AsyncSemaphore(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit 은 1 이상이어야 합니다: " + limit);
+        }
+        this.limit = limit;
+    }
+
+    /**
+     * 허가 1개를 요청합니다. 반환된 future 가 완료되면 허가를 얻은 것입니다.
+     */
+    public CompletableFuture<Void> acquire() {
+        synchronized (this) {
+            if (inUse < limit) {
+                inUse++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.offer(waiter);
+            return waiter;
+        }
+    }
+
+    /**
+     * 허가 1개를 반납합니다.
+     */
+    public void release() {
+        synchronized (this) {
+            inUse--;
+        }
+        grantWaiters();
+    }
+
+    /**
+     * 허가 수를 변경합니다. 늘어난 만큼 대기자를 바로 깨웁니다.
+     */
+    public void setLimit(int newLimit) {
+        synchronized (this) {
+            limit = Math.max(1, newLimit);
+        }
+        grantWaiters();
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInUse() {
+        return inUse;
+    }
+
+    public synchronized int getWaiting() {
+        return waiters.size();
+    }
+
+    private void grantWaiters() {
+        while (true) {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                if (inUse >= limit || waiters.isEmpty()) {
+                    return;
+                }
+                next = waiters.poll();
+                inUse++;
+            }
+            // 취소된 대기자라면 허가를 돌려받고 다음 대기자로
+            if (!next.complete(null)) {
+                synchronized (this) {
+                    inUse--;
+                }
+            }
+        }
+    }
+}
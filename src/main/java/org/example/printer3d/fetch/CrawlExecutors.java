@@ -0,0 +1,46 @@
+package org.example.printer3d.fetch;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 크롤링 작업용 실행기 생성.
+ * Java 21 이상에서는 가상 스레드(작업당 1개)를, 그 이하에서는 고정 크기 스레드풀을 사용합니다.
+ */
+public final class CrawlExecutors {
+
+    private static final Method VIRTUAL_EXECUTOR_FACTORY = findVirtualExecutorFactory();
+
+    private CrawlExecutors() {
+    }
+
+    /**
+     * 사이트 단위 작업 실행기를 생성합니다.
+     */
+    public static ExecutorService newSiteExecutor(int fallbackThreads) {
+        if (VIRTUAL_EXECUTOR_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // 아래 고정 스레드풀로 대체
+            }
+        }
+        return Executors.newFixedThreadPool(fallbackThreads);
+    }
+
+    /**
+     * 현재 JVM 이 가상 스레드를 지원하는지 여부
+     */
+    public static boolean isVirtualThreadAvailable() {
+        return VIRTUAL_EXECUTOR_FACTORY != null;
+    }
+
+    private static Method findVirtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null; // Java 21 미만
+        }
+    }
+}
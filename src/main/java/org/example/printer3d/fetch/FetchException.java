@@ -0,0 +1,153 @@
+package org.example.printer3d.fetch;
+
+import org.jsoup.HttpStatusException;
+import org.jsoup.UnsupportedMimeTypeException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.MalformedURLException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.channels.UnresolvedAddressException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeoutException;
+import javax.net.ssl.SSLException;
+
+/**
+ * 페이지 수집 실패를 원인별로 분류한 예외.
+ * 메시지 문자열("429", "Read timed out" 등)을 검사하지 않고 종류/상태 코드로 재시도·집계 여부를 판단합니다.
+ * 메시지는 기존 예외의 메시지를 그대로 유지하므로 결과 CSV 의 오류 문구는 바뀌지 않습니다.
+ */
+public class FetchException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 실패 원인
+     */
+    public enum Kind {
+        HTTP_STATUS,     // 4xx/5xx 응답
+        DNS,             // 호스트 이름 해석 실패
+        CONNECT_REFUSED, // 연결 거부/경로 없음
+        CONNECT_TIMEOUT, // 연결 수립 시간 초과
+        READ_TIMEOUT,    // 응답/본문 수신 시간 초과 (페이지 제한 시간 포함)
+        TLS,             // 인증서/핸드셰이크 오류
+        UNSUPPORTED,     // 잘못된 URL, HTML 이 아닌 콘텐츠
+        NETWORK,         // 그 밖의 입출력 오류 (연결 끊김 등)
+        CIRCUIT_OPEN,    // 연속 응답 없음으로 차단된 호스트 (요청을 보내지 않음)
+        OTHER            // 입출력 오류가 아닌 예외 (처리 코드 오류 등)
+    }
+
+    private final Kind kind;
+    private final int statusCode;        // HTTP_STATUS 일 때만 의미 있음 (그 외 -1)
+    private final long retryAfterMillis; // Retry-After 헤더 값 (없으면 -1)
+
+    public FetchException(Kind kind, String message, Throwable cause) {
+        this(kind, -1, -1, message, cause);
+    }
+
+    public FetchException(Kind kind, int statusCode, long retryAfterMillis, String message, Throwable cause) {
+        super(message, cause);
+        this.kind = kind;
+        this.statusCode = statusCode;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * HTTP 오류 응답 (Jsoup 과 같은 메시지 형식)
+     */
+    static FetchException httpStatus(int statusCode, String url, String retryAfterHeader) {
+        return new FetchException(Kind.HTTP_STATUS, statusCode, parseRetryAfter(retryAfterHeader),
+                "HTTP error fetching URL. Status=" + statusCode + ", URL=[" + url + "]", null);
+    }
+
+    /**
+     * 임의의 실패 원인을 분류합니다. (이미 FetchException 이면 그대로)
+     */
+    public static FetchException classify(Throwable e) {
+        if (e instanceof FetchException) return (FetchException) e;
+
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        if (e instanceof HttpStatusException) {
+            return new FetchException(Kind.HTTP_STATUS, ((HttpStatusException) e).getStatusCode(), -1, message, e);
+        }
+        return new FetchException(kindOf(e), message, e);
+    }
+
+    private static Kind kindOf(Throwable e) {
+        // HttpClient 는 DNS/TLS 오류를 ConnectException 등으로 감싸므로 원인 사슬 전체를 확인
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof UnknownHostException || t instanceof UnresolvedAddressException) return Kind.DNS;
+            if (t instanceof SSLException) return Kind.TLS;
+        }
+        if (e instanceof HttpConnectTimeoutException) return Kind.CONNECT_TIMEOUT;
+        if (e instanceof HttpTimeoutException || e instanceof SocketTimeoutException
+                || e instanceof TimeoutException) return Kind.READ_TIMEOUT;
+        if (e instanceof ConnectException || e instanceof NoRouteToHostException) return Kind.CONNECT_REFUSED;
+        if (e instanceof MalformedURLException || e instanceof UnsupportedMimeTypeException) return Kind.UNSUPPORTED;
+        return e instanceof IOException ? Kind.NETWORK : Kind.OTHER;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 서버가 알려 준 재시도 대기 시간 (없으면 -1)
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    /**
+     * 429 Too Many Requests 여부
+     */
+    public boolean isRateLimited() {
+        return kind == Kind.HTTP_STATUS && statusCode == 429;
+    }
+
+    /**
+     * 잠시 뒤 다시 보내면 성공할 수 있는 실패인지
+     * (429/408/502/503/504, 연결 끊김. 연결/읽기 시간 초과는 죽었거나 느린 사이트라 재시도하지 않고 회로 차단기가 집계)
+     */
+    public boolean isTransient() {
+        switch (kind) {
+            case HTTP_STATUS:
+                return statusCode == 429 || statusCode == 408 || statusCode == 502 || statusCode == 503
+                        || statusCode == 504;
+            case NETWORK:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Retry-After 헤더 (초 단위 숫자 또는 HTTP 날짜) → 밀리초. 해석할 수 없으면 -1.
+     */
+    static long parseRetryAfter(String header) {
+        if (header == null || header.trim().isEmpty()) return -1;
+        String value = header.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException e) {
+            // HTTP 날짜 형식
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
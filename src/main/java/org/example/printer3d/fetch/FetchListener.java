@@ -0,0 +1,16 @@
+package org.example.printer3d.fetch;
+
+/**
+ * 실제 네트워크 요청 1건이 끝날 때마다 호출되는 관찰자
+ * (캐시에서 바로 꺼낸 응답과 호출자가 취소한 요청은 제외, 페이지 제한 시간 초과는 오류로 알림)
+ */
+@FunctionalInterface
+public interface FetchListener {
+
+    /**
+     * @param latencyMs  요청 전송부터 응답(또는 실패)까지 걸린 시간
+     * @param statusCode HTTP 상태 코드 (응답을 받지 못했으면 -1)
+     * @param error      네트워크 오류 (응답을 받았으면 null)
+     */
+    void onFetchComplete(long latencyMs, int statusCode, Throwable error);
+}
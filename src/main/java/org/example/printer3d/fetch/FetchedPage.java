@@ -0,0 +1,68 @@
+package org.example.printer3d.fetch;
+
+import lombok.Getter;
+import org.example.printer3d.html.HtmlStreamScanner;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.util.Locale;
+
+/**
+ * HTTP 로 받아온 페이지 원본 (바이트 + 메타 정보).
+ * 파싱은 필요한 시점에 {@link #parse()} (DOM) 또는 {@link #scan} (스트리밍) 으로 수행합니다.
+ */
+@Getter
+public class FetchedPage {
+    private final String url;        // 요청한 URL
+    private final String finalUrl;   // 리다이렉트 이후 최종 URL
+    private final int statusCode;
+    private final String contentType;
+    private final byte[] body;
+
+    public FetchedPage(String url, String finalUrl, int statusCode, String contentType, byte[] body) {
+        this.url = url;
+        this.finalUrl = finalUrl;
+        this.statusCode = statusCode;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    /**
+     * 본문을 Jsoup Document 로 파싱합니다. (charset 이 없으면 Jsoup 이 meta 태그로 판별)
+     */
+    public Document parse() throws IOException {
+        return Jsoup.parse(new ByteArrayInputStream(body), getCharset(), finalUrl);
+    }
+
+    /**
+     * DOM 을 만들지 않고 본문을 훑어 보이는 텍스트와 링크만 전달합니다. (키워드 검출용)
+     *
+     * @param linkSink 링크가 필요 없으면 null
+     */
+    public void scan(HtmlStreamScanner.TextSink textSink, HtmlStreamScanner.LinkSink linkSink) throws IOException {
+        HtmlStreamScanner.scan(body, getCharset(), finalUrl, textSink, linkSink);
+    }
+
+    /**
+     * Content-Type 헤더의 charset 값 (없으면 null)
+     */
+    public String getCharset() {
+        if (contentType == null) return null;
+        for (String part : contentType.split(";")) {
+            String param = part.trim();
+            if (param.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                String charset = param.substring(8).trim().replace("\"", "").replace("'", "");
+                try {
+                    return Charset.isSupported(charset) ? charset : null;
+                } catch (IllegalCharsetNameException e) {
+                    return null; // 잘못된 charset 은 Jsoup 자동 판별에 맡김
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.printer3d.fetch;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * 응답 헤더를 먼저 보고 본문을 받을지 정하는 BodyHandler.
+ * 오류 응답이거나 Content-Type 이 HTML/XHTML/XML 이 아니면 본문을 받지 않고 바로 끊으며 (빈 본문, robots.txt 만 text/plain 허용),
+ * Content-Length 가 상한을 넘거나 받는 도중 상한을 넘으면 끊고 null 본문으로 완료합니다.
+ * 요청 자체는 정상 응답으로 끝나므로 동시성 제한기 등에는 오류로 집계되지 않고,
+ * 판정은 {@link PageFetcher} 가 본문을 페이지로 바꿀 때 합니다.
+ * 요청마다 하나씩 만들며, abortSignal 이 실패/취소로 끝나면 (페이지 제한 시간 초과, 호출자 취소)
+ * 받던 본문의 구독을 취소해 연결을 끊습니다. sendAsync future 취소는 JDK 16 이상에서만 소켓을 끊으므로
+ * Java 11 에서도 본문 수신을 멈추려면 구독 취소가 필요합니다.
+ */
+final class GuardedBodyHandler implements HttpResponse.BodyHandler<byte[]> {
+
+    static final byte[] SKIPPED = new byte[0]; // 받을 필요 없는 본문 (오류 응답, HTML 이 아닌 콘텐츠)
+
+    private final long maxBodyBytes;
+    private final boolean plainTextAllowed; // robots.txt 요청
+    private final CompletableFuture<?> abortSignal;
+
+    GuardedBodyHandler(long maxBodyBytes, boolean plainTextAllowed, CompletableFuture<?> abortSignal) {
+        this.maxBodyBytes = maxBodyBytes;
+        this.plainTextAllowed = plainTextAllowed;
+        this.abortSignal = abortSignal;
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<byte[]> apply(HttpResponse.ResponseInfo info) {
+        int status = info.statusCode();
+        String contentType = info.headers().firstValue("Content-Type").orElse(null);
+        if (status < 200 || status >= 400
+                || (contentType != null && !isSupportedContentType(contentType, plainTextAllowed))) {
+            return new LimitedSubscriber(-1, abortSignal);
+        }
+        long contentLength = info.headers().firstValueAsLong("Content-Length").orElse(-1);
+        if (contentLength > maxBodyBytes) {
+            return new LimitedSubscriber(0, abortSignal);
+        }
+        return new LimitedSubscriber(maxBodyBytes, abortSignal);
+    }
+
+    /**
+     * 받아서 파싱할 콘텐츠 종류인지 (HTML, XHTML, XML. plainTextAllowed 면 text/plain 도)
+     * text/css, text/javascript, text/csv 등 다른 text/* 는 페이지가 아니므로 받지 않습니다.
+     */
+    static boolean isSupportedContentType(String contentType, boolean plainTextAllowed) {
+        String type = contentType.toLowerCase(Locale.ROOT);
+        int parameters = type.indexOf(';');
+        type = (parameters >= 0 ? type.substring(0, parameters) : type).trim();
+        return type.equals("text/html") || type.equals("application/xhtml+xml")
+                || type.equals("text/xml") || type.equals("application/xml") || type.matches("application/\\S+\\+xml")
+                || (plainTextAllowed && type.equals("text/plain"));
+    }
+
+    /**
+     * 상한까지만 모으는 구독자.
+     * limit &lt; 0 이면 바로 끊고 빈 본문, 받은 양이 limit 을 넘으면 끊고 null (크기 초과).
+     * abortSignal 이 실패로 끝나면 구독을 취소하고 CancellationException 으로 완료합니다.
+     */
+    private static final class LimitedSubscriber implements HttpResponse.BodySubscriber<byte[]> {
+        private final long limit;
+        private final CompletableFuture<?> abortSignal;
+        private final CompletableFuture<byte[]> body = new CompletableFuture<>();
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private volatile Flow.Subscription subscription;
+
+        LimitedSubscriber(long limit, CompletableFuture<?> abortSignal) {
+            this.limit = limit;
+            this.abortSignal = abortSignal;
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (limit < 0) {
+                subscription.cancel();
+                body.complete(SKIPPED);
+            } else if (limit == 0) {
+                subscription.cancel();
+                body.complete(null);
+            } else {
+                abortSignal.whenComplete((result, error) -> {
+                    if (error != null && !body.isDone()) {
+                        subscription.cancel(); // 소켓 중단 (JDK 버전 무관)
+                        body.completeExceptionally(new CancellationException("본문 수신 중단"));
+                    }
+                });
+                subscription.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public synchronized void onNext(List<ByteBuffer> items) {
+            if (body.isDone()) return;
+            for (ByteBuffer item : items) {
+                byte[] chunk = new byte[item.remaining()];
+                item.get(chunk);
+                buffer.write(chunk, 0, chunk.length);
+            }
+            if (buffer.size() > limit) {
+                subscription.cancel();
+                body.complete(null);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            if (body.isDone()) return;
+            body.complete(buffer.toByteArray());
+        }
+    }
+}
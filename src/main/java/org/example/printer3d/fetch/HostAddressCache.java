@@ -0,0 +1,103 @@
+package org.example.printer3d.fetch;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 호스트명 → IP 해석 결과 캐시. IP 기준 예의 스케줄러/회로 차단기가 함께 씁니다.
+ * DNS 조회는 전용 스레드에서만 하므로 요청을 보내는 스레드(HttpClient 스레드 등)는 막히지 않습니다.
+ * 처음 보는 호스트는 null 을 돌려주고 (호출자는 호스트명 기준으로 처리) 해석이 끝나면 콜백으로 알립니다.
+ * 유효 시간이 지난 항목은 이전 값을 계속 돌려주면서 뒤에서 다시 해석하고, 항목 수는 상한을 넘지 않습니다. (오래 안 쓴 것부터 제거)
+ */
+final class HostAddressCache {
+
+    private static final int MAX_ENTRIES = 10_000;                      // 캐시 항목 상한
+    private static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(5); // 해석 결과 유효 시간
+    private static final int RESOLVER_THREADS = 4;                     // DNS 조회 전용 스레드 수
+
+    private static final HostAddressCache SHARED = new HostAddressCache();
+
+    private final Map<String, Resolved> entries = new LinkedHashMap<>(256, 0.75f, true) { // this 로 보호
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Resolved> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final ConcurrentHashMap<String, CompletableFuture<String>> resolving = new ConcurrentHashMap<>();
+    private final ExecutorService resolver = Executors.newFixedThreadPool(RESOLVER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "dns-resolver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private HostAddressCache() {
+    }
+
+    static HostAddressCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * 캐시된 주소 (해석 실패였으면 호스트명 그대로). 만료되었으면 이전 값을 돌려주고 다시 해석을 시작합니다.
+     * 처음 보는 호스트면 해석을 시작하고 null 을 돌려주며, 해석이 끝나면 onFirstResolve 를 (DNS 스레드에서) 호출합니다.
+     *
+     * @param host 소문자로 정규화된 호스트명
+     */
+    String addressOf(String host, Consumer<String> onFirstResolve) {
+        Resolved entry;
+        synchronized (this) {
+            entry = entries.get(host);
+        }
+        if (entry != null) {
+            if (System.nanoTime() - entry.resolvedAtNanos >= TTL_NANOS) {
+                resolve(host);
+            }
+            return entry.address;
+        }
+        resolve(host).thenAccept(onFirstResolve);
+        return null;
+    }
+
+    /**
+     * 진행 중인 해석이 있으면 그것을, 없으면 새로 시작한 해석을 돌려줍니다.
+     */
+    private CompletableFuture<String> resolve(String host) {
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = resolving.putIfAbsent(host, created);
+        if (existing != null) {
+            return existing;
+        }
+        resolver.execute(() -> {
+            String address;
+            try {
+                address = InetAddress.getByName(host).getHostAddress();
+            } catch (UnknownHostException | SecurityException e) {
+                address = host; // 해석 실패 시 호스트명 기준 (요청 자체가 DNS 오류로 실패함)
+            }
+            synchronized (this) {
+                entries.put(host, new Resolved(address, System.nanoTime()));
+            }
+            resolving.remove(host, created);
+            created.complete(address);
+        });
+        return created;
+    }
+
+    private static final class Resolved {
+        final String address;
+        final long resolvedAtNanos;
+
+        Resolved(String address, long resolvedAtNanos) {
+            this.address = address;
+            this.resolvedAtNanos = resolvedAtNanos;
+        }
+    }
+}
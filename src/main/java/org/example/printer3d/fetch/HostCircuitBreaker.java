@@ -0,0 +1,187 @@
+package org.example.printer3d.fetch;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 호스트(또는 해석된 IP)별 회로 차단기. 모든 검출기가 {@link #shared()} 하나를 함께 씁니다.
+ * 응답 없는 호스트로 연속 N번 실패하면 차단(OPEN)하고, 이후 요청은 보내지 않고 즉시 실패시킵니다.
+ * 대기 시간이 지나면 요청 1건만 시험으로 보내(HALF_OPEN) 성공하면 정상(CLOSED)으로, 실패하면 다시 차단합니다.
+ * IP 기준이면 같은 공유 호스팅 서버의 다른 사이트도 차단 여부를 함께 공유합니다.
+ * IP 는 {@link HostAddressCache} 가 DNS 전용 스레드에서 해석하며, 해석 전에는 호스트명 기준 회로를 쓰다가
+ * 해석이 끝나면 그 회로를 IP 기준으로 옮깁니다. (같은 IP 회로가 이미 있으면 그쪽을 씀)
+ */
+public class HostCircuitBreaker {
+
+    private static final int DEFAULT_FAILURE_THRESHOLD = 3; // 연속 실패 3회 → 차단 (기존 Read timeout 3회 한도와 동일)
+    private static final long DEFAULT_COOL_DOWN_MS = 30_000; // 차단 후 30초 뒤 시험 요청 허용
+
+    private static final HostCircuitBreaker SHARED = new HostCircuitBreaker(DEFAULT_FAILURE_THRESHOLD,
+            DEFAULT_COOL_DOWN_MS, PolitenessScheduler.KeyMode.IP);
+
+    /**
+     * 회로 상태
+     */
+    public enum State {
+        CLOSED,   // 정상
+        OPEN,     // 차단 (즉시 실패)
+        HALF_OPEN // 시험 요청 1건 진행 중
+    }
+
+    private final int failureThreshold;
+    private final long coolDownNanos;
+    private final PolitenessScheduler.KeyMode keyMode;
+
+    private final ConcurrentHashMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    // 통계
+    private final AtomicInteger openedCount = new AtomicInteger(0);   // 차단된 횟수
+    private final AtomicInteger rejectedCount = new AtomicInteger(0); // 차단으로 보내지 않은 요청 수
+
+    /**
+     * @param failureThreshold 차단까지 허용하는 연속 실패 횟수
+     * @param coolDownMs       차단 후 시험 요청까지 기다리는 시간
+     */
+    public HostCircuitBreaker(int failureThreshold, long coolDownMs, PolitenessScheduler.KeyMode keyMode) {
+        if (failureThreshold < 1 || coolDownMs < 0) {
+            throw new IllegalArgumentException("failureThreshold 는 1 이상, coolDownMs 는 0 이상이어야 합니다.");
+        }
+        this.failureThreshold = failureThreshold;
+        this.coolDownNanos = TimeUnit.MILLISECONDS.toNanos(coolDownMs);
+        this.keyMode = keyMode;
+    }
+
+    /**
+     * 모든 수집기가 공유하는 차단기 (IP 기준)
+     */
+    public static HostCircuitBreaker shared() {
+        return SHARED;
+    }
+
+    /**
+     * 해당 호스트의 회로 (처음 보는 호스트면 생성)
+     */
+    public Circuit circuitFor(String host) {
+        return circuits.computeIfAbsent(keyFor(host), Circuit::new);
+    }
+
+    /**
+     * 해당 호스트가 지금 차단되어 있는지 (시험 요청 대기 중 포함)
+     */
+    public boolean isOpen(String host) {
+        Circuit circuit = circuits.get(keyFor(host));
+        return circuit != null && circuit.getState() != State.CLOSED;
+    }
+
+    /**
+     * 로그용 통계 요약
+     */
+    public String describeStats() {
+        long openNow = circuits.values().stream().filter(c -> c.getState() != State.CLOSED).count();
+        return String.format("호스트 차단 %d회 (현재 %d곳), 차단으로 생략한 요청 %d건",
+                openedCount.get(), openNow, rejectedCount.get());
+    }
+
+    private String keyFor(String host) {
+        String normalized = host == null ? "" : host.toLowerCase(Locale.ROOT);
+        if (keyMode == PolitenessScheduler.KeyMode.HOST || normalized.isEmpty()) {
+            return normalized;
+        }
+        String address = HostAddressCache.shared().addressOf(normalized, resolved -> adopt(normalized, resolved));
+        return address != null ? address : normalized; // 해석 전에는 호스트명 기준
+    }
+
+    /**
+     * 해석 전에 호스트명 기준으로 만든 회로를 IP 기준으로 옮깁니다.
+     */
+    private void adopt(String host, String address) {
+        if (address.equals(host)) {
+            return;
+        }
+        Circuit byHost = circuits.remove(host);
+        if (byHost != null) {
+            circuits.putIfAbsent(address, byHost);
+        }
+    }
+
+    /**
+     * 호스트(또는 IP) 하나의 회로
+     */
+    public class Circuit {
+        private final String key;
+        private State state = State.CLOSED;
+        private int consecutiveFailures = 0;
+        private long openedAtNanos;
+
+        private Circuit(String key) {
+            this.key = key;
+        }
+
+        /**
+         * 요청을 보내도 되는지. OPEN 이면 false, 대기 시간이 지났으면 이 요청을 시험 요청으로 허용합니다.
+         */
+        public synchronized boolean tryAcquire() {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.nanoTime() - openedAtNanos >= coolDownNanos) {
+                        state = State.HALF_OPEN;
+                        return true;
+                    }
+                    break;
+                default:
+                    break; // 시험 요청 진행 중
+            }
+            rejectedCount.incrementAndGet();
+            return false;
+        }
+
+        /**
+         * 서버가 응답함 (HTTP 오류 응답 포함)
+         */
+        public synchronized void recordSuccess() {
+            if (state != State.CLOSED) {
+                System.out.printf("   [CIRCUIT] %s 응답 확인, 차단 해제\n", key);
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+        }
+
+        /**
+         * 응답 없음 (연결 실패/시간 초과)
+         */
+        public synchronized void recordFailure() {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                if (state == State.CLOSED) {
+                    System.err.printf("   [CIRCUIT] %s 연속 %d회 실패, %d초간 차단\n", key, consecutiveFailures,
+                            TimeUnit.NANOSECONDS.toSeconds(coolDownNanos));
+                }
+                state = State.OPEN;
+                openedAtNanos = System.nanoTime();
+                openedCount.incrementAndGet();
+            }
+        }
+
+        /**
+         * 결과 없이 끝난 요청 (취소). 시험 요청이었다면 다음 요청이 다시 시험할 수 있게 대기 상태로 돌립니다.
+         */
+        public synchronized void recordAbandoned() {
+            if (state == State.HALF_OPEN) {
+                state = State.OPEN;
+                openedAtNanos = System.nanoTime() - coolDownNanos; // 바로 다음 요청이 시험 요청
+            }
+        }
+
+        public synchronized State getState() {
+            return state;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package org.example.printer3d.fetch;
+
+import org.example.printer3d.crawl.UrlCanonicalizer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpHeaders;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 실행 간에 유지되는 디스크 HTTP 응답 캐시 (정규화 URL 기준).
+ * 본문과 ETag/Last-Modified 를 함께 저장해 두고,
+ * TTL 이내면 네트워크 없이 그대로 쓰고, 지났으면 조건부 GET 으로 변경 여부만 확인합니다. (304 면 저장본 재사용)
+ * 전체 크기가 상한을 넘으면 가장 오래 사용하지 않은 항목부터 지웁니다. (파일 수정 시각 = 마지막 사용 시각)
+ * 응답의 Cache-Control 을 따릅니다. (no-store/private 는 저장 안 함, no-cache 는 매번 확인, max-age 가 TTL 보다 짧으면 max-age)
+ * 디스크 읽기/쓰기와 정리는 캐시 전용 스레드에서 하므로 요청을 보내는 스레드(HttpClient 스레드 등)는 막히지 않습니다.
+ * 디스크 오류는 캐시 미사용으로 처리하며 크롤링을 멈추지 않습니다.
+ */
+public class HttpCache {
+
+    private static final int FORMAT_VERSION = 2;          // 2: max-age 추가 (1 은 읽지 않고 덮어씀)
+    private static final String ENTRY_SUFFIX = ".page";
+    private static final String TEMP_SUFFIX = ".part";    // 쓰는 중인 임시 파일
+    private static final double EVICT_TARGET_RATIO = 0.9; // 정리 시 상한의 90% 까지 비움
+    private static final long STALE_TEMP_MILLIS = TimeUnit.MINUTES.toMillis(10); // 이보다 오래된 임시 파일은 쓰다 남은 것
+    private static final int IO_THREADS = 4;              // 디스크 읽기/쓰기 스레드 수
+
+    private final Path directory;
+    private final long ttlMillis;
+    private final long maxBytes;
+    private final AtomicLong totalBytes = new AtomicLong(0);
+    private final AtomicBoolean evicting = new AtomicBoolean(false); // 정리 작업이 예약/진행 중
+    private final ExecutorService io = Executors.newFixedThreadPool(IO_THREADS, daemon("http-cache-io"));
+    private final ExecutorService evictor = Executors.newSingleThreadExecutor(daemon("http-cache-evict"));
+    private volatile boolean enabled = true;
+
+    // 통계
+    private final AtomicInteger freshHits = new AtomicInteger(0);  // TTL 이내 → 요청 생략
+    private final AtomicInteger revalidated = new AtomicInteger(0); // 304 → 본문 재사용
+    private final AtomicInteger stored = new AtomicInteger(0);      // 새로 받아 저장
+    private final AtomicInteger notStored = new AtomicInteger(0);   // no-store/private 라 저장 안 함
+    private final AtomicLong bytesSaved = new AtomicLong(0);        // 다시 받지 않은 본문 크기
+
+    /**
+     * @param ttl      이 시간 이내 저장본은 확인 요청 없이 사용
+     * @param maxBytes 캐시 전체 크기 상한
+     */
+    public HttpCache(Path directory, Duration ttl, long maxBytes) {
+        this.directory = directory;
+        this.ttlMillis = ttl.toMillis();
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.forEach(p -> {
+                    if (p.toString().endsWith(ENTRY_SUFFIX)) {
+                        totalBytes.addAndGet(sizeOf(p));
+                    } else if (p.toString().endsWith(TEMP_SUFFIX)) {
+                        deleteQuietly(p); // 이전 실행이 쓰다 남긴 임시 파일
+                    }
+                });
+            }
+        } catch (IOException e) {
+            System.err.printf("⚠️ HTTP 캐시 사용 불가 [%s]: %s\n", directory, e.getMessage());
+            enabled = false;
+        }
+    }
+
+    /**
+     * 캐시 전용 스레드에서 저장본을 조회합니다. ({@link #lookup} 참고, 캐시를 못 쓰면 바로 null 로 완료)
+     */
+    public CompletableFuture<Entry> lookupAsync(String url) {
+        if (!enabled) return CompletableFuture.completedFuture(null);
+        return CompletableFuture.supplyAsync(() -> lookup(url), io);
+    }
+
+    /**
+     * 저장본 조회 (없거나 손상되었으면 null). 조회한 항목은 최근 사용으로 표시됩니다. (디스크를 읽으므로 블로킹)
+     */
+    public Entry lookup(String url) {
+        if (!enabled) return null;
+        Path file = pathFor(url);
+        if (!Files.exists(file)) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            Entry entry = new Entry(in.readUTF(), in.readUTF(), emptyToNull(in.readUTF()),
+                    emptyToNull(in.readUTF()), emptyToNull(in.readUTF()), in.readLong(), in.readLong(), readBody(in));
+            if (!entry.url.equals(UrlCanonicalizer.canonicalize(url))) {
+                return null; // 지문 충돌
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return entry;
+        } catch (IOException e) {
+            delete(file); // 손상된 항목
+            return null;
+        }
+    }
+
+    /**
+     * TTL(응답에 max-age 가 더 짧게 있으면 max-age) 이내라 확인 요청 없이 써도 되는지
+     */
+    public boolean isFresh(Entry entry) {
+        long freshMillis = entry.maxAgeMillis >= 0 ? Math.min(entry.maxAgeMillis, ttlMillis) : ttlMillis;
+        return System.currentTimeMillis() - entry.storedAtMillis < freshMillis;
+    }
+
+    /**
+     * TTL 이내 저장본을 그대로 사용했음을 기록
+     */
+    void recordFreshHit(Entry entry) {
+        freshHits.incrementAndGet();
+        bytesSaved.addAndGet(entry.body.length);
+    }
+
+    /**
+     * 304 응답으로 저장본이 유효함을 확인했을 때 저장 시각을 갱신합니다. (304 의 Cache-Control 로 max-age 도 갱신)
+     */
+    void recordRevalidated(Entry entry, HttpHeaders headers) {
+        revalidated.incrementAndGet();
+        bytesSaved.addAndGet(entry.body.length);
+        String cacheControl = cacheControlOf(headers);
+        if (cacheControl.isEmpty()) {
+            writeAsync(new Entry(entry.url, entry.finalUrl, entry.contentType, entry.etag, entry.lastModified,
+                    System.currentTimeMillis(), entry.maxAgeMillis, entry.body));
+        } else if (isStorable(cacheControl)) {
+            writeAsync(new Entry(entry.url, entry.finalUrl, entry.contentType, entry.etag, entry.lastModified,
+                    System.currentTimeMillis(), maxAgeMillisOf(cacheControl), entry.body));
+        } else {
+            removeAsync(entry.url);
+        }
+    }
+
+    /**
+     * 200 응답을 저장합니다. (Cache-Control 이 no-store/private 면 저장하지 않고 기존 저장본도 지움)
+     */
+    void store(FetchedPage page, HttpHeaders headers) {
+        if (!enabled) return;
+        String url = UrlCanonicalizer.canonicalize(page.getUrl());
+        String cacheControl = cacheControlOf(headers);
+        if (!isStorable(cacheControl)) {
+            notStored.incrementAndGet();
+            removeAsync(url);
+            return;
+        }
+        stored.incrementAndGet();
+        writeAsync(new Entry(url, page.getFinalUrl(), page.getContentType(),
+                headers.firstValue("ETag").orElse(null), headers.firstValue("Last-Modified").orElse(null),
+                System.currentTimeMillis(), maxAgeMillisOf(cacheControl), page.getBody()));
+    }
+
+    /**
+     * Cache-Control 헤더 전체 (여러 줄이면 합침, 소문자)
+     */
+    private static String cacheControlOf(HttpHeaders headers) {
+        return String.join(",", headers.allValues("Cache-Control")).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isStorable(String cacheControl) {
+        return directiveValue(cacheControl, "no-store") == null && directiveValue(cacheControl, "private") == null;
+    }
+
+    /**
+     * 응답이 허용한 재사용 시간 (no-cache 면 0 = 매번 확인, 지정이 없으면 -1 = TTL 사용)
+     */
+    private static long maxAgeMillisOf(String cacheControl) {
+        if (directiveValue(cacheControl, "no-cache") != null) {
+            return 0;
+        }
+        String maxAge = directiveValue(cacheControl, "max-age");
+        if (maxAge == null) {
+            return -1;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(maxAge.replace("\"", "").trim())));
+        } catch (NumberFormatException e) {
+            return 0; // 잘못된 max-age 는 만료로 취급 (RFC 9111)
+        }
+    }
+
+    /**
+     * Cache-Control 지시자의 값 (값 없는 지시자면 "", 없으면 null)
+     */
+    private static String directiveValue(String cacheControl, String name) {
+        for (String directive : cacheControl.split(",")) {
+            int equals = directive.indexOf('=');
+            String directiveName = (equals >= 0 ? directive.substring(0, equals) : directive).trim();
+            if (directiveName.equals(name)) {
+                return equals >= 0 ? directive.substring(equals + 1) : "";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 로그용 통계 요약
+     */
+    public String describeStats() {
+        return String.format("재사용 %d건 (304 확인 %d건 포함), 새로 저장 %d건 (저장 금지 %d건), 절약 %.1fMB, 캐시 크기 %.1fMB",
+                freshHits.get() + revalidated.get(), revalidated.get(), stored.get(), notStored.get(),
+                bytesSaved.get() / 1048576.0, totalBytes.get() / 1048576.0);
+    }
+
+    private void writeAsync(Entry entry) {
+        io.execute(() -> write(entry));
+    }
+
+    private void removeAsync(String url) {
+        io.execute(() -> delete(pathFor(url)));
+    }
+
+    private void write(Entry entry) {
+        Path file = pathFor(entry.url);
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), "tmp", TEMP_SUFFIX);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(entry.url);
+                out.writeUTF(entry.finalUrl);
+                out.writeUTF(nullToEmpty(entry.contentType));
+                out.writeUTF(nullToEmpty(entry.etag));
+                out.writeUTF(nullToEmpty(entry.lastModified));
+                out.writeLong(entry.storedAtMillis);
+                out.writeLong(entry.maxAgeMillis);
+                out.writeInt(entry.body.length);
+                out.write(entry.body);
+            }
+            long oldSize = sizeOf(file);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temp = null; // 옮겼으므로 지울 필요 없음
+            if (totalBytes.addAndGet(sizeOf(file) - oldSize) > maxBytes && evicting.compareAndSet(false, true)) {
+                evictor.execute(this::evict);
+            }
+        } catch (IOException e) {
+            System.err.printf("   [DEBUG] HTTP 캐시 저장 실패 [%s]: %s\n", entry.url, e.getMessage());
+        } finally {
+            if (temp != null) {
+                deleteQuietly(temp); // 쓰다 실패한 임시 파일
+            }
+        }
+    }
+
+    /**
+     * 최근 사용 시각이 오래된 항목부터 삭제해 상한의 90% 이하로 줄입니다. (정리 전용 스레드에서 실행)
+     * 쓰다 남은 오래된 임시 파일도 함께 지웁니다.
+     */
+    private void evict() {
+        try {
+            evictOldest();
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private void evictOldest() {
+        if (totalBytes.get() <= maxBytes) return;
+
+        // (마지막 사용 시각, 경로) 목록을 한 번만 읽어 정렬
+        List<Map.Entry<Long, Path>> files = new ArrayList<>();
+        long staleBefore = System.currentTimeMillis() - STALE_TEMP_MILLIS;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            walk.forEach(p -> {
+                if (p.toString().endsWith(ENTRY_SUFFIX)) {
+                    files.add(new AbstractMap.SimpleEntry<>(lastUsedMillis(p), p));
+                } else if (p.toString().endsWith(TEMP_SUFFIX) && lastUsedMillis(p) < staleBefore) {
+                    deleteQuietly(p);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            return;
+        }
+        files.sort(Map.Entry.comparingByKey());
+
+        long target = (long) (maxBytes * EVICT_TARGET_RATIO);
+        for (Map.Entry<Long, Path> file : files) {
+            if (totalBytes.get() <= target) break;
+            delete(file.getValue());
+        }
+    }
+
+    private void delete(Path file) {
+        long size = sizeOf(file);
+        try {
+            if (Files.deleteIfExists(file)) {
+                totalBytes.addAndGet(-size);
+            }
+        } catch (IOException e) {
+            // 다음 정리 때 다시 시도
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // 다음 실행 때 다시 정리
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 정규화 URL 지문으로 만든 파일 경로 (앞 2자리로 하위 폴더 분산)
+     */
+    private Path pathFor(String url) {
+        String hex = String.format("%016x", UrlCanonicalizer.fingerprint(url));
+        return directory.resolve(hex.substring(0, 2)).resolve(hex + ENTRY_SUFFIX);
+    }
+
+    private static byte[] readBody(DataInputStream in) throws IOException {
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+        return body;
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.exists(file) ? Files.size(file) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastUsedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 저장된 응답 1건
+     */
+    public static class Entry {
+        private final String url;          // 정규화 URL
+        private final String finalUrl;
+        private final String contentType;
+        private final String etag;
+        private final String lastModified;
+        private final long storedAtMillis; // 저장(또는 마지막 확인) 시각
+        private final long maxAgeMillis;   // 응답의 max-age (-1 = 지정 없음, 0 = 매번 확인)
+        private final byte[] body;
+
+        Entry(String url, String finalUrl, String contentType, String etag, String lastModified,
+              long storedAtMillis, long maxAgeMillis, byte[] body) {
+            this.url = url;
+            this.finalUrl = finalUrl;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.storedAtMillis = storedAtMillis;
+            this.maxAgeMillis = maxAgeMillis;
+            this.body = body;
+        }
+
+        String getEtag() {
+            return etag;
+        }
+
+        String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * 저장본으로 페이지 생성 (요청 URL 은 호출자 기준)
+         */
+        FetchedPage toPage(String requestUrl) {
+            return new FetchedPage(requestUrl, finalUrl, 200, contentType, body);
+        }
+    }
+}
@@ -0,0 +1,985 @@
+package org.example.printer3d.fetch;
+
+import org.example.printer3d.crawl.UrlCanonicalizer;
+import org.jsoup.UnsupportedMimeTypeException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * java.net.http.HttpClient 기반 논블로킹 페이지 수집기.
+ * 소켓 대기 중에는 스레드를 점유하지 않으므로 수천 개의 요청을 동시에 진행할 수 있고,
+ * Jsoup 은 받아온 바이트를 파싱할 때만 사용합니다.
+ * 같은 URL(정규화 기준)에 대한 요청이 동시에 들어오면 한 번만 보내고 결과를 나눠 줍니다.
+ * 실패는 {@link FetchException} 으로 분류되며, 일시적 실패(429/503, 연결 시간 초과 등)는
+ * {@link RetryPolicy} 가 정한 시간만큼 지연 큐에서 기다렸다가 다시 보냅니다. (대기 중 스레드 점유 없음)
+ * 응답 없는 호스트는 {@link HostCircuitBreaker} 가 차단하며, 차단된 호스트로는 요청을 보내지 않고 즉시 실패합니다.
+ * 연결 제한 시간은 응답 제한 시간과 따로 짧게 두어, 죽은 사이트는 응답 대기 없이 빨리 실패합니다.
+ * 응답 헤더로 HTML 이 아니거나 너무 큰 본문을 먼저 걸러 받지 않고 끊습니다. (이미지/PDF/동영상 등)
+ * {@link RequestHedger} 를 주면 메인 페이지가 최근 p90 보다 늦을 때 같은 요청을 한 번 더 보냅니다. (예산 내)
+ */
+public class PageFetcher {
+
+    private static final String ACCEPT = "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8";
+    private static final int PAGE_DEADLINE_FACTOR = 2; // 본문 수신까지 포함한 페이지 전체 제한 시간 = timeout × 2
+    private static final int DEFAULT_CONNECT_TIMEOUT_MS = 2000; // 연결 수립 제한 시간 (응답 제한 시간과 별도)
+    private static final long DEFAULT_MAX_BODY_BYTES = 5L * 1024 * 1024; // 페이지 본문 상한 (압축 해제 후 기준)
+
+    private final HttpClient httpClient;
+    private final String userAgent;
+    private final Duration timeout;    // 응답(헤더) 수신 제한 시간
+    private final long connectTimeoutMs; // 메인 페이지 후보를 시간으로 추가 시작하는 간격으로도 사용
+    private final long pageDeadlineMs; // 초과 시 연결을 끊고 HttpTimeoutException 으로 완료
+    private final PolitenessScheduler politeness; // null 이면 간격 조절 없음
+    private final HttpCache cache;                // null 이면 디스크 캐시 미사용
+    private final FetchListener listener;         // null 이면 요청 결과 통보 없음 (동시성 제한기 등)
+    private final RetryPolicy retryPolicy;
+    private final HostCircuitBreaker circuitBreaker;
+    private final RequestHedger homepageHedger;   // null 이면 메인 페이지 헤지 안 함
+    private final long maxBodyBytes;
+
+    // 진행 중인 요청 (정규화 URL → 결과). 완료되면 제거되므로 캐시가 아님
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger coalescedCount = new AtomicInteger(0);
+    private final AtomicInteger retryCount = new AtomicInteger(0);
+
+    private PageFetcher(Builder builder) {
+        this.userAgent = builder.userAgent;
+        this.timeout = Duration.ofMillis(builder.timeoutMs);
+        this.pageDeadlineMs = (long) builder.timeoutMs * PAGE_DEADLINE_FACTOR;
+        this.politeness = builder.politeness;
+        this.cache = builder.cache;
+        this.listener = builder.listener;
+        this.retryPolicy = builder.retryPolicy != null ? builder.retryPolicy : RetryPolicy.NONE;
+        this.circuitBreaker = builder.circuitBreaker;
+        this.homepageHedger = builder.homepageHedger;
+        this.maxBodyBytes = builder.maxBodyBytes;
+        this.connectTimeoutMs = builder.connectTimeoutMs > 0
+                ? builder.connectTimeoutMs : Math.min(builder.timeoutMs, DEFAULT_CONNECT_TIMEOUT_MS);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.ALWAYS) // Jsoup 과 동일하게 https -> http 리다이렉트도 허용
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+
+    /**
+     * 수집기 설정을 시작합니다. 지정하지 않은 항목은 기본값을 씁니다.
+     * (간격 조절/캐시/통보/헤지 없음, 기본 재시도 정책, 공용 회로 차단기, 본문 상한 5MB)
+     *
+     * @param timeoutMs 연결 후 응답 제한 시간 (본문까지는 이 값의 2배)
+     */
+    public static Builder builder(String userAgent, int timeoutMs) {
+        return new Builder(userAgent, timeoutMs);
+    }
+
+    /**
+     * {@link PageFetcher} 설정
+     */
+    public static final class Builder {
+        private final String userAgent;
+        private final int timeoutMs;
+        private int connectTimeoutMs;                 // 0 이면 min(timeout, 2초)
+        private PolitenessScheduler politeness;
+        private HttpCache cache;
+        private FetchListener listener;
+        private RetryPolicy retryPolicy = RetryPolicy.defaults();
+        private HostCircuitBreaker circuitBreaker = HostCircuitBreaker.shared();
+        private RequestHedger homepageHedger;
+        private long maxBodyBytes = DEFAULT_MAX_BODY_BYTES;
+
+        private Builder(String userAgent, int timeoutMs) {
+            this.userAgent = userAgent;
+            this.timeoutMs = timeoutMs;
+        }
+
+        /**
+         * 연결 수립 제한 시간 (죽은 호스트를 빨리 걸러내도록 짧게)
+         */
+        public Builder connectTimeoutMs(int connectTimeoutMs) {
+            this.connectTimeoutMs = connectTimeoutMs;
+            return this;
+        }
+
+        public Builder politeness(PolitenessScheduler politeness) {
+            this.politeness = politeness;
+            return this;
+        }
+
+        public Builder cache(HttpCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        public Builder listener(FetchListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * null 이면 재시도 안 함
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * null 이면 호스트 차단 안 함
+         */
+        public Builder circuitBreaker(HostCircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * 메인 페이지 헤지 정책 (null 이면 헤지 안 함)
+         */
+        public Builder homepageHedger(RequestHedger homepageHedger) {
+            this.homepageHedger = homepageHedger;
+            return this;
+        }
+
+        /**
+         * 이보다 큰 본문은 받다가 끊고 실패 처리 (압축 해제 후 크기도 적용)
+         */
+        public Builder maxBodyBytes(long maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+            return this;
+        }
+
+        public PageFetcher build() {
+            return new PageFetcher(this);
+        }
+    }
+
+    /**
+     * 페이지를 비동기로 가져옵니다. 실패 시 {@link FetchException} 으로 완료됩니다.
+     * 같은 호스트 요청은 예의 스케줄러가 정한 시각까지 지연 큐에서 대기한 뒤 전송됩니다.
+     * 같은 URL 요청이 이미 진행 중이면 새로 보내지 않고 그 결과를 함께 받습니다.
+     * 실제로 보낸 시점부터 본문까지 페이지 제한 시간(시도마다) 안에 받지 못하면 연결을 끊고 실패로 처리하며,
+     * 일시적 실패는 재시도 정책에 따라 다시 보냅니다.
+     * 반환된 future 를 취소하면 (같은 요청을 기다리는 다른 호출자가 없을 때) 진행 중인 연결과 예정된 재시도도 취소합니다.
+     */
+    public CompletableFuture<FetchedPage> fetchAsync(String url) {
+        String key = UrlCanonicalizer.canonicalize(url);
+        InFlight created = new InFlight();
+        // 진행 중인 요청에 합류 (마지막 호출자가 이미 떠나 취소 중이면 합류하지 않고 새로 보냄)
+        InFlight shared = inFlight.compute(key, (k, existing) ->
+                existing != null && !existing.result.isDone() && existing.tryJoin() ? existing : created);
+        if (shared != created) {
+            coalescedCount.incrementAndGet();
+            return shared.newCaller();
+        }
+
+        created.result.whenComplete((page, error) -> inFlight.remove(key, created));
+        attempt(url, created.result, 1);
+        return created.newCaller();
+    }
+
+    /**
+     * 메인 페이지를 가져옵니다. CSV 에 적힌 주소 외에 http/https, www 유무를 바꾼 후보도 함께 시도해
+     * 가장 먼저 정상 응답한 페이지를 사용합니다. (happy eyeballs 방식)
+     * 적힌 주소를 먼저 보내고, 앞 후보가 실패하면 즉시 다음 후보를 시작합니다.
+     * 실패 없이 연결 제한 시간이 지나도록 응답이 없을 때만 다음 후보를 미리 시작하며, 이 추가 요청은
+     * 메인 페이지 헤지 예산({@link RequestHedger})을 소모합니다. (예산이 없으면 실패를 기다림)
+     * 하나가 성공하면 나머지는 취소하며, 모두 실패하면 적힌 주소의 오류로 실패합니다.
+     * 돌려받은 페이지의 getFinalUrl() 이 실제로 응답한 주소입니다.
+     */
+    public CompletableFuture<FetchedPage> fetchHomepageAsync(String url) {
+        List<String> variants = homepageVariants(url);
+        if (variants.size() <= 1) {
+            return fetchHedged(variants.isEmpty() ? url : variants.get(0));
+        }
+        return new HomepageRace(variants).start();
+    }
+
+    /**
+     * 메인 페이지 후보 주소 (적힌 주소 → 스킴 변경 → www 변경 → 둘 다 변경). 스킴이 없으면 http 를 먼저 시도합니다.
+     * IP 주소나 점이 없는 호스트는 www 후보를 만들지 않습니다.
+     */
+    static List<String> homepageVariants(String url) {
+        String trimmed = url.trim();
+        String lower = trimmed.toLowerCase(Locale.ROOT);
+        String scheme;
+        String rest;
+        if (lower.startsWith("http://")) {
+            scheme = "http://";
+            rest = trimmed.substring(7);
+        } else if (lower.startsWith("https://")) {
+            scheme = "https://";
+            rest = trimmed.substring(8);
+        } else if (!trimmed.contains("://") && !trimmed.isEmpty()) {
+            scheme = "http://";
+            rest = trimmed;
+        } else {
+            return List.of(trimmed); // 지원하지 않는 스킴 → 그대로 요청해 오류 처리
+        }
+        String otherScheme = "http://".equals(scheme) ? "https://" : "http://";
+
+        Set<String> variants = new LinkedHashSet<>();
+        variants.add(scheme + rest);
+        variants.add(otherScheme + rest);
+        String wwwRest = toggleWww(rest);
+        if (wwwRest != null) {
+            variants.add(scheme + wwwRest);
+            variants.add(otherScheme + wwwRest);
+        }
+        return new ArrayList<>(variants);
+    }
+
+    private static String toggleWww(String rest) {
+        int hostEnd = 0;
+        while (hostEnd < rest.length() && "/?#:".indexOf(rest.charAt(hostEnd)) < 0) {
+            hostEnd++;
+        }
+        String host = rest.substring(0, hostEnd).toLowerCase(Locale.ROOT);
+        if (host.indexOf('.') < 0 || host.matches("[0-9.]+") || host.startsWith("[")) {
+            return null; // localhost, IP 주소
+        }
+        return host.startsWith("www.") ? rest.substring(4) : "www." + rest;
+    }
+
+    /**
+     * 메인 페이지 후보 경주 1회
+     */
+    private final class HomepageRace {
+        private final List<String> variants;
+        private final CompletableFuture<FetchedPage> winner = new CompletableFuture<>();
+        private final List<CompletableFuture<FetchedPage>> started = new ArrayList<>(); // this 로 보호
+        private int failures = 0;
+        private Throwable originalError; // 적힌 주소의 오류 (모두 실패 시 사용)
+
+        HomepageRace(List<String> variants) {
+            this.variants = variants;
+        }
+
+        CompletableFuture<FetchedPage> start() {
+            winner.whenComplete((page, error) -> cancelAll()); // 승자가 정해지거나 호출자가 취소하면 나머지 중단
+            startNext(0);
+            return winner;
+        }
+
+        /**
+         * index 번째 후보가 아직 시작 전이면 시작하고, 연결 제한 시간 뒤 다음 후보를 예약합니다.
+         */
+        private void startNext(int index) {
+            startNext(index, false);
+        }
+
+        /**
+         * @param timed 앞 후보의 실패가 아니라 시간 경과로 시작하는 경우 (헤지 예산 필요)
+         */
+        private void startNext(int index, boolean timed) {
+            CompletableFuture<FetchedPage> attempt;
+            synchronized (this) {
+                if (winner.isDone() || index != started.size() || index >= variants.size()) {
+                    return; // 이미 시작했거나 끝남
+                }
+                if (timed && homepageHedger != null && !homepageHedger.tryAcquire()) {
+                    return; // 예산 없음 → 앞 후보가 실패하면 그때 시작
+                }
+                attempt = index == 0 ? fetchHedged(variants.get(0)) : fetchAsync(variants.get(index));
+                started.add(attempt);
+            }
+            attempt.whenComplete((page, error) -> onComplete(index, page, error));
+            if (index + 1 < variants.size()) {
+                CompletableFuture.delayedExecutor(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                        .execute(() -> startNext(index + 1, true));
+            }
+        }
+
+        private void onComplete(int index, FetchedPage page, Throwable error) {
+            if (error == null) {
+                winner.complete(page);
+                return;
+            }
+            int next;
+            synchronized (this) {
+                if (index == 0) originalError = error;
+                if (++failures == variants.size()) {
+                    winner.completeExceptionally(originalError);
+                    return;
+                }
+                next = started.size();
+            }
+            startNext(next); // 실패하면 다음 후보를 기다리지 않고 바로 시작
+        }
+
+        private synchronized void cancelAll() {
+            for (CompletableFuture<FetchedPage> attempt : started) {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * 헤지 정책이 있으면 원 요청이 p90 보다 늦을 때 같은 요청을 한 번 더 보내고 먼저 성공한 응답을 씁니다.
+     */
+    private CompletableFuture<FetchedPage> fetchHedged(String url) {
+        if (homepageHedger == null) {
+            return fetchAsync(url);
+        }
+        return new HedgedFetch(url).start(homepageHedger.onPrimary());
+    }
+
+    /**
+     * 같은 진행 중 요청과 합치지 않고 새로 보내는 요청 (헤지용)
+     */
+    private CompletableFuture<FetchedPage> fetchUncoalesced(String url) {
+        CompletableFuture<FetchedPage> result = new CompletableFuture<>();
+        attempt(url, result, 1);
+        return result;
+    }
+
+    /**
+     * 원 요청 + (필요 시) 헤지 요청 1쌍
+     */
+    private final class HedgedFetch {
+        private final String url;
+        private final long startedAtNanos = System.nanoTime();
+        private final CompletableFuture<FetchedPage> result = new CompletableFuture<>();
+        private CompletableFuture<FetchedPage> primary; // this 로 보호
+        private CompletableFuture<FetchedPage> hedge;
+        private Throwable primaryError;
+
+        HedgedFetch(String url) {
+            this.url = url;
+        }
+
+        CompletableFuture<FetchedPage> start(long hedgeDelayMs) {
+            synchronized (this) {
+                primary = fetchAsync(url);
+            }
+            primary.whenComplete((page, error) -> {
+                // 성공, 또는 헤지에 져서 취소된 경우의 경과 시간을 p90 표본으로 (빠른 연결 거부 등은 제외)
+                if (error == null || primary.isCancelled()) {
+                    homepageHedger.recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos));
+                }
+                onComplete(page, error, false);
+            });
+            if (hedgeDelayMs >= 0) {
+                CompletableFuture.delayedExecutor(hedgeDelayMs, TimeUnit.MILLISECONDS).execute(this::startHedge);
+            }
+            result.whenComplete((page, error) -> cancelAll()); // 승자가 정해지거나 호출자가 취소하면 나머지 중단
+            return result;
+        }
+
+        private synchronized void startHedge() {
+            if (result.isDone() || !homepageHedger.tryAcquire()) {
+                return;
+            }
+            System.err.printf("   [HEDGE] %s 응답 지연, 같은 요청 추가 전송\n", url);
+            hedge = fetchUncoalesced(url);
+            hedge.whenComplete((page, error) -> onComplete(page, error, true));
+        }
+
+        private void onComplete(FetchedPage page, Throwable error, boolean fromHedge) {
+            if (error == null) {
+                if (result.complete(page) && fromHedge) {
+                    homepageHedger.recordHedgeWon();
+                }
+                return;
+            }
+            synchronized (this) {
+                if (!fromHedge) primaryError = error;
+                CompletableFuture<FetchedPage> other = fromHedge ? primary : hedge;
+                if (other != null && !other.isDone()) {
+                    return; // 남은 요청의 결과를 기다림
+                }
+                result.completeExceptionally(primaryError != null ? primaryError : error);
+            }
+        }
+
+        private synchronized void cancelAll() {
+            if (primary != null) primary.cancel(true);
+            if (hedge != null) hedge.cancel(true);
+        }
+    }
+
+    /**
+     * attempt 번째 시도. 실패하면 재시도 정책에 따라 지연 큐에 다음 시도를 예약하거나 result 를 실패로 완료합니다.
+     */
+    private void attempt(String url, CompletableFuture<FetchedPage> result, int attempt) {
+        if (result.isDone()) {
+            return; // 대기 중 취소됨
+        }
+        CompletableFuture<FetchedPage> pending = new CompletableFuture<>(); // 제한 시간은 실제 전송 시점부터 (send 참고)
+        result.whenComplete((page, error) -> {
+            if (error != null) {
+                pending.cancel(true); // 호출자 취소 → 진행 중인 연결 끊기
+            }
+        });
+        pending.whenComplete((page, error) -> {
+            if (error == null) {
+                result.complete(page);
+                return;
+            }
+            FetchException failure = failureOf(error);
+            long delayMs = result.isDone() ? -1 : retryPolicy.nextDelayMillis(attempt, failure);
+            if (delayMs < 0) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            retryCount.incrementAndGet();
+            System.err.printf("   [RETRY] %s (%d번째 실패, %dms 후 재시도): %s\n", url, attempt, delayMs,
+                    failure.getMessage());
+            Executor delayed = CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS);
+            delayed.execute(() -> attempt(url, result, attempt + 1));
+        });
+        startFetch(url, pending).whenComplete((page, error) -> {
+            if (error != null) {
+                pending.completeExceptionally(error);
+            } else {
+                pending.complete(page);
+            }
+        });
+    }
+
+    /**
+     * 진행 중인 요청 1건과 이를 기다리는 호출자 수
+     */
+    private static final class InFlight {
+        private final CompletableFuture<FetchedPage> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger(1); // 만든 호출자 포함, 0 이 되면 요청 취소 (이후 합류 불가)
+
+        /**
+         * 호출자별 사본 (한쪽 취소가 다른 쪽에 전파되지 않도록). 마지막 호출자가 취소하면 요청 자체를 취소합니다.
+         */
+        CompletableFuture<FetchedPage> newCaller() {
+            CompletableFuture<FetchedPage> caller = result.thenApply(page -> page);
+            caller.whenComplete((page, error) -> {
+                if (caller.isCancelled() && leave()) {
+                    result.cancel(true);
+                }
+            });
+            return caller;
+        }
+
+        /**
+         * 호출자 1명 추가. 모든 호출자가 이미 떠났으면 (취소 중) false.
+         */
+        boolean tryJoin() {
+            while (true) {
+                int current = waiters.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (waiters.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean leave() {
+            return waiters.decrementAndGet() == 0;
+        }
+    }
+
+    /**
+     * 다른 요청과 합쳐져 실제로 보내지 않은 요청 수
+     */
+    public int getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * 일시적 실패로 다시 보낸 요청 수
+     */
+    public int getRetryCount() {
+        return retryCount.get();
+    }
+
+    private CompletableFuture<FetchedPage> startFetch(String url, CompletableFuture<FetchedPage> pending) {
+        if (cache == null) {
+            return startFetch(url, null, pending);
+        }
+        // 디스크 캐시 조회는 캐시 전용 스레드에서 (HttpClient 스레드를 디스크 읽기로 막지 않음)
+        return cache.lookupAsync(url).thenCompose(cached -> startFetch(url, cached, pending));
+    }
+
+    private CompletableFuture<FetchedPage> startFetch(String url, HttpCache.Entry cached,
+                                                      CompletableFuture<FetchedPage> pending) {
+        // 디스크 캐시: TTL 이내면 요청 없이 사용, 지났으면 조건부 GET
+        if (cached != null && cache.isFresh(cached)) {
+            cache.recordFreshHit(cached);
+            return CompletableFuture.completedFuture(cached.toPage(url));
+        }
+
+        HttpRequest request;
+        URI uri;
+        try {
+            uri = toUri(url);
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                    .timeout(timeout)
+                    .header("User-Agent", userAgent)
+                    .header("Accept", ACCEPT)
+                    .header("Accept-Encoding", "gzip")
+                    .GET();
+            if (cached != null && cached.getEtag() != null) {
+                builder.header("If-None-Match", cached.getEtag());
+            }
+            if (cached != null && cached.getLastModified() != null) {
+                builder.header("If-Modified-Since", cached.getLastModified());
+            }
+            request = builder.build();
+        } catch (IOException | IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e instanceof IOException ? e
+                    : new MalformedURLException("Malformed URL: " + url));
+        }
+
+        // 차단된 호스트는 보내지 않고 즉시 실패 (대기 시간이 지났으면 이 요청이 시험 요청)
+        String host = uri.getHost();
+        HostCircuitBreaker.Circuit circuit = circuitBreaker == null ? null : circuitBreaker.circuitFor(host);
+        if (circuit != null && !circuit.tryAcquire()) {
+            return CompletableFuture.failedFuture(new FetchException(FetchException.Kind.CIRCUIT_OPEN,
+                    "호스트 일시 차단 (연속 응답 없음): " + host, null));
+        }
+
+        CompletableFuture<FetchedPage> sent;
+        if (politeness == null) {
+            sent = send(url, request, cached, pending);
+        } else {
+            // 호스트 슬롯을 얻은 뒤 토큰을 예약하고, 끝나면 (성공/실패 무관) 슬롯 반납
+            sent = politeness.acquireSlot(host)
+                    .thenCompose(slots -> sendPolitely(url, request, host, cached, pending)
+                            .whenComplete((page, error) -> slots.release()));
+        }
+        if (circuit != null) {
+            sent = sent.whenComplete((page, error) -> recordOutcome(circuit, error, pending));
+        }
+        return sent;
+    }
+
+    /**
+     * 요청 결과를 회로에 반영합니다.
+     * 서버가 응답했으면 (HTTP 오류 포함) 성공, 연결 실패/시간 초과는 실패, 취소·DNS·TLS 오류는 반영하지 않습니다.
+     * 페이지 제한 시간 초과로 연결을 끊은 경우는 응답 없음으로 봅니다.
+     * 호스트 슬롯/토큰을 기다리다 취소되어 보내지도 않은 요청은 호스트 상태와 무관하므로 실패로 세지 않습니다.
+     */
+    private static void recordOutcome(HostCircuitBreaker.Circuit circuit, Throwable error,
+                                      CompletableFuture<FetchedPage> pending) {
+        if (error == null) {
+            circuit.recordSuccess();
+            return;
+        }
+        if (unwrap(error) instanceof NotSentException) {
+            circuit.recordAbandoned();
+            return;
+        }
+        FetchException failure = unwrap(error) instanceof CancellationException && isDeadlineExceeded(pending)
+                ? failureOf(new TimeoutException()) : failureOf(error);
+        switch (failure.getKind()) {
+            case HTTP_STATUS:
+            case UNSUPPORTED:
+                circuit.recordSuccess();
+                break;
+            case CONNECT_REFUSED:
+            case CONNECT_TIMEOUT:
+            case READ_TIMEOUT:
+            case NETWORK:
+                circuit.recordFailure();
+                break;
+            default:
+                circuit.recordAbandoned();
+                break;
+        }
+    }
+
+    /**
+     * 호출자 쪽 취소로 끝난 요청인지 (보내기 전 취소 포함, 페이지 제한 시간 초과는 제외 → 응답 없음으로 봄)
+     */
+    private static boolean isCallerCancelled(Throwable error, CompletableFuture<FetchedPage> pending) {
+        return error != null && unwrap(error) instanceof CancellationException
+                && (unwrap(error) instanceof NotSentException || !isDeadlineExceeded(pending));
+    }
+
+    private static boolean isDeadlineExceeded(CompletableFuture<FetchedPage> pending) {
+        try {
+            pending.getNow(null);
+            return false;
+        } catch (CompletionException e) {
+            return e.getCause() instanceof TimeoutException;
+        } catch (CancellationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 여러 페이지를 최대 parallelism 개씩 동시에 가져오며, 끝나는 순서대로 handler 를 호출합니다.
+     * stopCondition 이 true 가 되면 새 요청은 더 시작하지 않습니다. (진행 중인 요청은 마저 처리)
+     * 반환된 future 를 취소하면 새 요청을 멈추고 진행 중인 요청의 연결도 끊습니다. (취소된 페이지는 handler 호출 안 함)
+     */
+    public CompletableFuture<Void> fetchAll(List<String> urls, int parallelism,
+                                            BooleanSupplier stopCondition, PageHandler handler) {
+        return fetchAllAsync(urls, parallelism, stopCondition, (url, page, error) -> {
+            handler.onPage(url, page, error);
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    /**
+     * {@link #fetchAll(List, int, BooleanSupplier, PageHandler)} 와 같지만, 각 통로가 handler 가 돌려준 처리가 끝난 뒤에
+     * 다음 요청을 보냅니다. 뒤 단계(파싱 등)가 밀리면 요청도 그만큼 늦춰집니다. (역압)
+     */
+    public CompletableFuture<Void> fetchAllAsync(List<String> urls, int parallelism,
+                                                 BooleanSupplier stopCondition, AsyncPageHandler handler) {
+        CompletableFuture<Void> all = new CompletableFuture<>();
+        Set<CompletableFuture<FetchedPage>> active = ConcurrentHashMap.newKeySet();
+        BooleanSupplier stopped = () -> all.isDone() || stopCondition.getAsBoolean();
+
+        AtomicInteger nextIndex = new AtomicInteger(0);
+        int lanes = Math.max(1, Math.min(parallelism, urls.size()));
+        CompletableFuture<?>[] laneFutures = new CompletableFuture<?>[lanes];
+        for (int i = 0; i < lanes; i++) {
+            laneFutures[i] = runLane(urls, nextIndex, stopped, handler, active);
+        }
+        CompletableFuture.allOf(laneFutures).whenComplete((v, error) -> all.complete(null));
+        all.whenComplete((v, error) -> {
+            if (all.isCancelled()) {
+                active.forEach(fetch -> fetch.cancel(true));
+            }
+        });
+        return all;
+    }
+
+    /**
+     * {@link #fetchAll} 의 페이지별 결과 처리기. page 와 error 중 하나만 null 이 아닙니다.
+     */
+    public interface PageHandler {
+        void onPage(String url, FetchedPage page, Throwable error);
+    }
+
+    /**
+     * 비동기 페이지별 결과 처리기. 반환한 future 가 끝나야 같은 통로의 다음 요청을 보냅니다.
+     */
+    public interface AsyncPageHandler {
+        CompletableFuture<Void> onPage(String url, FetchedPage page, Throwable error);
+    }
+
+    private CompletableFuture<Void> runLane(List<String> urls, AtomicInteger nextIndex, BooleanSupplier stopCondition,
+                                            AsyncPageHandler handler, Set<CompletableFuture<FetchedPage>> active) {
+        if (stopCondition.getAsBoolean()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int index = nextIndex.getAndIncrement();
+        if (index >= urls.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String url = urls.get(index);
+        CompletableFuture<FetchedPage> fetch = fetchAsync(url);
+        active.add(fetch);
+        return fetch
+                .handle((page, error) -> {
+                    active.remove(fetch);
+                    if (fetch.isCancelled()) {
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    try {
+                        return handler.onPage(url, page, error == null ? null : asIOException(error))
+                                .exceptionally(e -> {
+                                    System.err.printf("   [DEBUG] 페이지 처리 오류 [%s]: %s\n", url, unwrap(e).getMessage());
+                                    return null;
+                                });
+                    } catch (RuntimeException e) {
+                        System.err.printf("   [DEBUG] 페이지 처리 오류 [%s]: %s\n", url, e.getMessage());
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                })
+                .thenCompose(processing -> processing)
+                .thenCompose(v -> runLane(urls, nextIndex, stopCondition, handler, active));
+    }
+
+    private CompletableFuture<FetchedPage> sendPolitely(String url, HttpRequest request, String host,
+                                                        HttpCache.Entry cached, CompletableFuture<FetchedPage> pending) {
+        if (pending.isDone()) {
+            return CompletableFuture.failedFuture(new NotSentException(url)); // 슬롯 대기 중 취소 → 토큰을 쓰지 않음
+        }
+        long delayNanos = politeness.reserve(host);
+        if (delayNanos <= 0) {
+            return send(url, request, cached, pending);
+        }
+        Executor delayed = CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS);
+        return CompletableFuture.supplyAsync(() -> request, delayed)
+                .thenCompose(r -> send(url, r, cached, pending));
+    }
+
+    /**
+     * 요청 전송. 페이지 제한 시간은 여기서 시작합니다. (예의 스케줄러 대기 시간은 제외)
+     * pending 이 먼저 끝나면 (제한 시간 초과/취소) 보내지 않거나 진행 중인 연결을 끊습니다.
+     */
+    private CompletableFuture<FetchedPage> send(String url, HttpRequest request, HttpCache.Entry cached,
+                                                CompletableFuture<FetchedPage> pending) {
+        if (pending.isDone()) {
+            return CompletableFuture.failedFuture(new NotSentException(url));
+        }
+        pending.orTimeout(pageDeadlineMs, TimeUnit.MILLISECONDS);
+        long sentAt = System.nanoTime();
+        // 본문 수신 중 pending 이 실패하면 본문 구독을 취소해 연결을 끊음 (Java 11 포함)
+        CompletableFuture<HttpResponse<byte[]>> exchange =
+                httpClient.sendAsync(request, new GuardedBodyHandler(maxBodyBytes, isRobotsTxt(url), pending));
+        pending.whenComplete((page, error) -> {
+            if (error != null) {
+                exchange.cancel(true); // 응답 헤더 대기 중이면 JDK 16+ 에서 연결 중단 (이미 끝났으면 무시)
+            }
+        });
+        return exchange
+                .whenComplete((response, error) -> {
+                    // 호출자가 취소해 끊은 요청 (경주/헤지 패자, 떠난 대기자, 사이트 제한 시간 등)은 네트워크 상태와 무관하므로 알리지 않음
+                    if (listener != null && !isCallerCancelled(error, pending)) {
+                        listener.onFetchComplete(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sentAt),
+                                response != null ? response.statusCode() : -1, error);
+                    }
+                })
+                .thenApply(response -> {
+                    // 304 Not Modified → 저장본 재사용
+                    if (response.statusCode() == 304 && cached != null) {
+                        cache.recordRevalidated(cached, response.headers());
+                        return cached.toPage(url);
+                    }
+                    FetchedPage page = toPage(url, response);
+                    if (cache != null && page.getStatusCode() == 200) {
+                        cache.store(page, response.headers());
+                    }
+                    return page;
+                });
+    }
+
+    /**
+     * 해당 URL 의 호스트가 연속 응답 없음으로 차단되어 있는지
+     */
+    public boolean isHostBlocked(String url) {
+        if (circuitBreaker == null) return false;
+        try {
+            return circuitBreaker.isOpen(toUri(url).getHost());
+        } catch (MalformedURLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 메인 페이지 헤지 정책 (없으면 null)
+     */
+    public RequestHedger getHomepageHedger() {
+        return homepageHedger;
+    }
+
+    /**
+     * 호스트 회로 차단기 (없으면 null)
+     */
+    public HostCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * 디스크 캐시 (없으면 null)
+     */
+    public HttpCache getCache() {
+        return cache;
+    }
+
+    /**
+     * 페이지를 가져올 때까지 대기합니다. (가상 스레드에서 호출하면 캐리어 스레드를 점유하지 않음)
+     */
+    public FetchedPage fetch(String url) throws IOException {
+        return await(fetchAsync(url), url);
+    }
+
+    /**
+     * 메인 페이지를 가져올 때까지 대기합니다. ({@link #fetchHomepageAsync} 참고)
+     */
+    public FetchedPage fetchHomepage(String url) throws IOException {
+        return await(fetchHomepageAsync(url), url);
+    }
+
+    private static FetchedPage await(CompletableFuture<FetchedPage> future, String url) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw asIOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("페이지 수집 중단: " + url);
+        }
+    }
+
+    /**
+     * Read timeout 여부 (연결 타임아웃은 제외)
+     */
+    public static boolean isReadTimeout(Throwable e) {
+        return e != null && failureOf(e).getKind() == FetchException.Kind.READ_TIMEOUT;
+    }
+
+    /**
+     * 429 Too Many Requests 여부 (재시도 후에도 계속된 경우)
+     */
+    public static boolean isRateLimited(Throwable e) {
+        return e != null && failureOf(e).isRateLimited();
+    }
+
+    /**
+     * CompletableFuture 에서 꺼낸 예외를 분류된 IOException 으로 정리합니다.
+     * (HttpClient 의 ConnectException 등은 메시지가 비어 있으므로 예외 이름으로 보완)
+     */
+    public static IOException asIOException(Throwable e) {
+        return failureOf(e);
+    }
+
+    private static FetchException failureOf(Throwable e) {
+        e = unwrap(e);
+        if (e instanceof TimeoutException) {
+            return new FetchException(FetchException.Kind.READ_TIMEOUT, "페이지 제한 시간 초과",
+                    new HttpTimeoutException("페이지 제한 시간 초과"));
+        }
+        if (e instanceof RuntimeException && e.getCause() instanceof IOException) e = e.getCause();
+        return FetchException.classify(e);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * 보내기 전에 취소된 요청 (회로 차단기에 실패로 세지 않음)
+     */
+    private static final class NotSentException extends CancellationException {
+        private static final long serialVersionUID = 1L;
+
+        NotSentException(String url) {
+            super("요청 취소 (전송 전): " + url);
+        }
+    }
+
+    private FetchedPage toPage(String url, HttpResponse<byte[]> response) {
+        String finalUrl = response.uri().toString();
+        int status = response.statusCode();
+        if (status < 200 || status >= 400) {
+            throw new CompletionException(FetchException.httpStatus(status, finalUrl,
+                    response.headers().firstValue("Retry-After").orElse(null)));
+        }
+
+        String contentType = response.headers().firstValue("Content-Type").orElse(null);
+        if (contentType != null && !GuardedBodyHandler.isSupportedContentType(contentType, isRobotsTxt(url))) {
+            throw new CompletionException(new UnsupportedMimeTypeException(
+                    "Unhandled content type. Must be text/html, application/xhtml+xml, text/xml, application/xml, or application/*+xml",
+                    contentType, finalUrl));
+        }
+
+        try {
+            byte[] body = response.body();
+            String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+            if (body != null && "gzip".equalsIgnoreCase(encoding.trim())) {
+                body = gunzip(body, maxBodyBytes);
+            }
+            if (body == null) {
+                throw new FetchException(FetchException.Kind.UNSUPPORTED,
+                        String.format("본문 크기 초과 (상한 %.1fMB): %s", maxBodyBytes / 1048576.0, finalUrl), null);
+            }
+            return new FetchedPage(url, finalUrl, status, contentType, body);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * gzip 본문 해제 (해제 크기가 상한을 넘으면 null)
+     */
+    private static byte[] gunzip(byte[] body, long maxBytes) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(maxBytes, body.length * 4L));
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                out.write(chunk, 0, read);
+                if (out.size() > maxBytes) {
+                    return null;
+                }
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * robots.txt 요청인지 (text/plain 응답을 받아들이는 유일한 경우)
+     */
+    private static boolean isRobotsTxt(String url) {
+        String path = url.trim().toLowerCase(Locale.ROOT);
+        int end = path.length();
+        for (char c : new char[]{'?', '#'}) {
+            int index = path.indexOf(c);
+            if (index >= 0 && index < end) end = index;
+        }
+        return path.substring(0, end).endsWith("/robots.txt");
+    }
+
+    /**
+     * CSV 에 적힌 URL 을 HttpClient 가 받아들이는 URI 로 변환합니다.
+     * (공백/한글 등은 퍼센트 인코딩, 이미 인코딩된 %xx 는 유지, fragment 제거)
+     */
+    static URI toUri(String url) throws MalformedURLException {
+        String trimmed = url.trim();
+        int hash = trimmed.indexOf('#');
+        if (hash >= 0) trimmed = trimmed.substring(0, hash);
+
+        String lower = trimmed.toLowerCase(Locale.ROOT);
+        if (!lower.startsWith("http://") && !lower.startsWith("https://")) {
+            throw new MalformedURLException("Only http & https protocols supported: " + url);
+        }
+
+        StringBuilder encoded = new StringBuilder(trimmed.length() + 16);
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c > 0x20 && c < 0x7f && "\"<>\\^`{|}".indexOf(c) < 0) {
+                encoded.append(c);
+            } else {
+                int end = Character.isHighSurrogate(c) && i + 1 < trimmed.length() ? i + 2 : i + 1;
+                for (byte b : trimmed.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                    encoded.append('%').append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                            .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+                }
+                i = end - 1;
+            }
+        }
+
+        try {
+            URI uri = URI.create(encoded.toString());
+            if (uri.getHost() == null) {
+                throw new MalformedURLException("Malformed URL: " + url);
+            }
+            return uri;
+        } catch (IllegalArgumentException e) {
+            throw new MalformedURLException("Malformed URL: " + url);
+        }
+    }
+}
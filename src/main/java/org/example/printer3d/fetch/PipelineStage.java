@@ -0,0 +1,115 @@
+package org.example.printer3d.fetch;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 크롤링 파이프라인의 CPU 단계 하나 (고정 작업 스레드 + 크기 제한 대기열).
+ * 수집(I/O) 단계와 스레드를 나눠, 큰 페이지 파싱이 요청 처리 스레드를 붙잡거나 I/O 대기 중에 코어가 노는 일을 막습니다.
+ * 대기열이 가득 차면 {@link #submit} 의 future 가 자리가 날 때까지 완료되지 않으므로 (스레드는 막지 않음)
+ * 결과를 기다렸다가 다음 요청을 보내는 앞 단계가 자연스럽게 늦춰집니다. (명시적 역압)
+ * 대기열 깊이, 대기/처리 시간, 가득 차서 기다린 횟수를 집계합니다.
+ */
+public class PipelineStage {
+
+    private final String name;
+    private final int workers;
+    private final int queueCapacity;
+    private final ExecutorService executor;
+    private final AsyncSemaphore slots; // 처리 중 + 대기 중 작업 수 상한 (= workers + queueCapacity)
+
+    // 통계
+    private final AtomicInteger queued = new AtomicInteger(0);      // 작업 스레드를 기다리는 작업 수
+    private final AtomicInteger maxQueued = new AtomicInteger(0);
+    private final AtomicLong completedCount = new AtomicLong(0);
+    private final AtomicLong backpressureCount = new AtomicLong(0); // 대기열이 가득 차 자리를 기다린 제출 수
+    private final AtomicLong queueWaitNanos = new AtomicLong(0);    // 제출 ~ 처리 시작 (역압 대기 포함)
+    private final AtomicLong serviceNanos = new AtomicLong(0);      // 처리 시작 ~ 완료
+    private final AtomicLong maxServiceNanos = new AtomicLong(0);
+
+    /**
+     * @param workers       작업 스레드 수 (CPU 단계는 코어 수)
+     * @param queueCapacity 작업 스레드를 기다릴 수 있는 작업 수 (넘으면 제출한 쪽이 기다림)
+     */
+    public PipelineStage(String name, int workers, int queueCapacity) {
+        if (workers < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("workers 는 1 이상, queueCapacity 는 0 이상이어야 합니다.");
+        }
+        this.name = name;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.slots = new AsyncSemaphore(workers + queueCapacity);
+        AtomicInteger threadIndex = new AtomicInteger(0);
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 작업을 제출합니다. 대기열에 자리가 없으면 자리가 날 때까지 기다렸다가 실행합니다.
+     * 작업이 던진 예외는 future 의 CompletionException 원인으로 전달됩니다.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        CompletableFuture<Void> slot = slots.acquire();
+        if (!slot.isDone()) {
+            backpressureCount.incrementAndGet();
+        }
+        return slot.thenCompose(v -> {
+            maxQueued.accumulateAndGet(queued.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> run(task, submittedAt), executor);
+        }).whenComplete((result, error) -> slots.release());
+    }
+
+    private <T> T run(Callable<T> task, long submittedAt) {
+        long startedAt = System.nanoTime();
+        queued.decrementAndGet();
+        queueWaitNanos.addAndGet(startedAt - submittedAt);
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        } finally {
+            long elapsed = System.nanoTime() - startedAt;
+            serviceNanos.addAndGet(elapsed);
+            maxServiceNanos.accumulateAndGet(elapsed, Math::max);
+            completedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 현재 작업 스레드를 기다리는 작업 수
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * 현재 대기열 자리를 기다리는 제출 수 (역압으로 멈춰 있는 앞 단계 작업)
+     */
+    public int getBlockedSubmitters() {
+        return slots.getWaiting();
+    }
+
+    /**
+     * 로그용 통계 요약
+     */
+    public String describeStats() {
+        long completed = completedCount.get();
+        double avgWaitMs = completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(queueWaitNanos.get()) / 1000.0 / completed;
+        double avgServiceMs = completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(serviceNanos.get()) / 1000.0 / completed;
+        return String.format("%s 단계 (스레드 %d개, 처리+대기 상한 %d): %d건, 대기열 최대 %d, 평균 대기 %.1fms, 평균 처리 %.1fms (최대 %dms), 대기열 가득 참 %d회",
+                name, workers, workers + queueCapacity, completed, maxQueued.get(), avgWaitMs, avgServiceMs,
+                TimeUnit.NANOSECONDS.toMillis(maxServiceNanos.get()), backpressureCount.get());
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.printer3d.fetch;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 호스트(또는 해석된 IP)별 토큰 버킷으로 요청 간격을 조절하는 예의(politeness) 스케줄러.
+ * 서로 다른 호스트 요청은 즉시 나가고, 같은 호스트 요청만 설정된 속도로 간격이 벌어집니다.
+ * 워커 스레드를 재우지 않고 "언제 보내면 되는지"만 계산해 돌려줍니다.
+ * 호스트별 동시 요청 수 상한도 함께 관리합니다.
+ * IP 기준이면 {@link HostAddressCache} 가 DNS 전용 스레드에서 해석하며, 해석 전에는 호스트명 기준 버킷을 쓰다가
+ * 해석이 끝나면 그 버킷을 IP 기준으로 옮깁니다. (같은 IP 버킷이 이미 있으면 그쪽을 씀)
+ */
+public class PolitenessScheduler {
+
+    private static final int DEFAULT_MAX_IN_FLIGHT_PER_HOST = 2;
+
+    /**
+     * 버킷을 나누는 기준
+     */
+    public enum KeyMode {
+        HOST, // 호스트명 기준
+        IP    // DNS 로 해석된 IP 기준 (같은 공유 호스팅 서버를 하나로 취급)
+    }
+
+    private final double ratePerSecond;
+    private final int burst;
+    private final int maxInFlightPerHost;
+    private final KeyMode keyMode;
+
+    private final ConcurrentHashMap<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * @param ratePerSecond 호스트당 초당 허용 요청 수
+     * @param burst         쉬고 있던 호스트에 연달아 보낼 수 있는 요청 수
+     * @param maxInFlightPerHost 호스트당 동시에 진행할 수 있는 요청 수
+     */
+    public PolitenessScheduler(double ratePerSecond, int burst, int maxInFlightPerHost, KeyMode keyMode) {
+        if (ratePerSecond <= 0 || burst < 1 || maxInFlightPerHost < 1) {
+            throw new IllegalArgumentException("rate 는 0보다 크고 burst, maxInFlightPerHost 는 1 이상이어야 합니다.");
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.maxInFlightPerHost = maxInFlightPerHost;
+        this.keyMode = keyMode;
+    }
+
+    public PolitenessScheduler(double ratePerSecond) {
+        this(ratePerSecond, 1, DEFAULT_MAX_IN_FLIGHT_PER_HOST, KeyMode.HOST);
+    }
+
+    /**
+     * 해당 호스트로 요청 1건을 예약하고, 보내기 전까지 기다려야 할 시간(나노초)을 반환합니다.
+     * 0 이면 즉시 보내도 됩니다.
+     */
+    public long reserve(String host) {
+        return stateFor(host).bucket.reserve(System.nanoTime());
+    }
+
+    /**
+     * 해당 호스트의 동시 요청 슬롯을 요청합니다. 완료되면 슬롯을 얻은 것이며, 끝나면 받은 세마포어에 release 로 반납해야 합니다.
+     * (그 사이 버킷 기준이 호스트명에서 IP 로 바뀌어도 같은 세마포어에 반납하도록 세마포어를 돌려줌)
+     */
+    public CompletableFuture<AsyncSemaphore> acquireSlot(String host) {
+        AsyncSemaphore slots = stateFor(host).slots;
+        return slots.acquire().thenApply(v -> slots);
+    }
+
+    /**
+     * 현재 관리 중인 버킷(호스트/IP) 수
+     */
+    public int getTrackedKeyCount() {
+        return hosts.size();
+    }
+
+    private HostState stateFor(String host) {
+        return hosts.computeIfAbsent(keyFor(host), k -> new HostState());
+    }
+
+    private String keyFor(String host) {
+        String normalized = host == null ? "" : host.toLowerCase(Locale.ROOT);
+        if (keyMode == KeyMode.HOST || normalized.isEmpty()) {
+            return normalized;
+        }
+        String address = HostAddressCache.shared().addressOf(normalized, resolved -> adopt(normalized, resolved));
+        return address != null ? address : normalized; // 해석 전에는 호스트명 기준
+    }
+
+    /**
+     * 해석 전에 호스트명 기준으로 만든 버킷을 IP 기준으로 옮깁니다.
+     */
+    private void adopt(String host, String address) {
+        if (address.equals(host)) {
+            return;
+        }
+        HostState byHost = hosts.remove(host);
+        if (byHost != null) {
+            hosts.putIfAbsent(address, byHost);
+        }
+    }
+
+    /**
+     * 호스트별 상태 (토큰 버킷 + 동시 요청 슬롯)
+     */
+    private class HostState {
+        final TokenBucket bucket = new TokenBucket();
+        final AsyncSemaphore slots = new AsyncSemaphore(maxInFlightPerHost);
+    }
+
+    /**
+     * 부족분을 "빚"으로 예약하는 토큰 버킷
+     */
+    private class TokenBucket {
+        private double tokens = burst;
+        private long lastRefillNanos = System.nanoTime();
+
+        synchronized long reserve(long now) {
+            double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+            tokens = Math.min(burst, tokens + elapsedSeconds * ratePerSecond);
+            lastRefillNanos = now;
+
+            tokens -= 1;
+            if (tokens >= 0) {
+                return 0;
+            }
+            return (long) (-tokens / ratePerSecond * TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.printer3d.fetch;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 느린 요청에 같은 요청을 한 번 더 보내는(헤지) 시점과 허용량을 정합니다.
+ * 최근 응답 시간의 p90 이 지나도록 응답이 없으면 헤지를 보내고, 둘 중 먼저 끝난 응답을 씁니다.
+ * 추가 부하는 전역 예산으로 제한합니다. (원 요청 1건마다 budgetRatio 만큼 적립, 헤지 1건에 1 소모)
+ * 메인 페이지 후보 주소(http/https, www)를 응답 대기 중에 미리 시작할 때도 같은 예산을 씁니다.
+ * 스레드 안전하며 수집기 하나가 공유합니다.
+ */
+public class RequestHedger {
+
+    private static final int WINDOW_SIZE = 200;   // p90 계산에 쓰는 최근 응답 수
+    private static final int MIN_SAMPLES = 20;    // 이보다 적게 모이면 헤지하지 않음
+    private static final double MAX_TOKENS = 10;  // 예산 적립 상한 (한꺼번에 보낼 수 있는 헤지 수)
+
+    private final double budgetRatio;
+    private final long minDelayMs;
+
+    // 최근 응답 시간 (원형 버퍼)
+    private final long[] latencies = new long[WINDOW_SIZE];
+    private int sampleCount = 0;
+    private int nextSlot = 0;
+    private double tokens = 0;
+
+    // 통계
+    private final AtomicInteger hedgesSent = new AtomicInteger(0);
+    private final AtomicInteger hedgesWon = new AtomicInteger(0);
+
+    /**
+     * @param budgetRatio 원 요청 대비 헤지 요청 비율 상한 (예: 0.05 = 5%)
+     * @param minDelayMs  p90 이 이보다 짧아도 최소 이만큼은 기다린 뒤 헤지
+     */
+    public RequestHedger(double budgetRatio, long minDelayMs) {
+        if (budgetRatio <= 0 || budgetRatio > 1 || minDelayMs < 0) {
+            throw new IllegalArgumentException("budgetRatio 는 0 초과 1 이하, minDelayMs 는 0 이상이어야 합니다.");
+        }
+        this.budgetRatio = budgetRatio;
+        this.minDelayMs = minDelayMs;
+    }
+
+    /**
+     * 원 요청을 보낼 때 호출합니다. 예산을 적립하고, 헤지까지 기다릴 시간(ms)을 반환합니다.
+     * 표본이 부족하면 -1 (헤지하지 않음).
+     */
+    public synchronized long onPrimary() {
+        tokens = Math.min(MAX_TOKENS, tokens + budgetRatio);
+        if (sampleCount < MIN_SAMPLES) {
+            return -1;
+        }
+        long[] window = Arrays.copyOf(latencies, Math.min(sampleCount, WINDOW_SIZE));
+        Arrays.sort(window);
+        return Math.max(minDelayMs, window[(int) Math.ceil(window.length * 0.9) - 1]);
+    }
+
+    /**
+     * 헤지를 보내도 되는지 (예산이 있으면 1 소모)
+     */
+    public synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        hedgesSent.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 원 요청 기준 응답 시간 기록 (원 요청이 헤지에 져서 취소되었으면 그때까지의 시간)
+     */
+    public synchronized void recordLatency(long latencyMs) {
+        latencies[nextSlot] = latencyMs;
+        nextSlot = (nextSlot + 1) % WINDOW_SIZE;
+        sampleCount++;
+    }
+
+    /**
+     * 헤지 응답이 먼저 도착함
+     */
+    void recordHedgeWon() {
+        hedgesWon.incrementAndGet();
+    }
+
+    /**
+     * 로그용 통계 요약
+     */
+    public String describeStats() {
+        return String.format("헤지 요청 %d건 (헤지가 먼저 응답 %d건)", hedgesSent.get(), hedgesWon.get());
+    }
+}
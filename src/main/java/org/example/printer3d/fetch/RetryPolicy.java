@@ -0,0 +1,50 @@
+package org.example.printer3d.fetch;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 일시적 실패의 재시도 간격 계산 (지수 백오프 + full jitter, Retry-After 우선).
+ * 대기 자체는 {@link PageFetcher} 가 지연 큐에 넣어 처리하므로 작업 스레드를 재우지 않습니다.
+ * 불변이므로 여러 수집기가 공유해도 안전합니다.
+ */
+public final class RetryPolicy {
+
+    /** 재시도하지 않음 */
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0, 0);
+
+    private final int maxAttempts;        // 첫 요청 포함 최대 시도 횟수
+    private final long baseDelayMillis;   // 첫 재시도 간격 상한 (이후 2배씩)
+    private final long maxDelayMillis;    // 백오프 간격 상한
+    private final long maxRetryAfterMillis; // 서버가 이보다 오래 기다리라고 하면 재시도 포기
+
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis, long maxRetryAfterMillis) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxRetryAfterMillis = maxRetryAfterMillis;
+    }
+
+    /**
+     * 기본값: 최대 3회 시도, 0.5초부터 2배씩 최대 8초, Retry-After 는 30초까지 따름
+     */
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(3, 500, 8000, 30000);
+    }
+
+    /**
+     * attempt 번째 시도(1부터)가 실패했을 때 다음 시도까지 기다릴 시간.
+     * 재시도하지 않아야 하면 -1 (영구 실패, 횟수 소진, Retry-After 가 너무 김).
+     */
+    public long nextDelayMillis(int attempt, FetchException failure) {
+        if (attempt >= maxAttempts || !failure.isTransient()) {
+            return -1;
+        }
+        long retryAfter = failure.getRetryAfterMillis();
+        if (retryAfter >= 0) {
+            return retryAfter <= maxRetryAfterMillis ? retryAfter : -1;
+        }
+        // full jitter: [0, min(max, base × 2^(attempt-1))] 에서 균등 선택 → 동시에 실패한 요청이 한꺼번에 몰리지 않음
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
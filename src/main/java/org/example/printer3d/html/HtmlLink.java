@@ -0,0 +1,17 @@
+package org.example.printer3d.html;
+
+import lombok.Getter;
+
+/**
+ * 스트리밍 스캔 중 수집한 &lt;a href&gt; 링크 (절대 URL + 링크 텍스트)
+ */
+@Getter
+public class HtmlLink {
+    private final String href; // 절대 URL (해석 실패 시 빈 문자열)
+    private final String text; // 공백 정리된 링크 텍스트
+
+    public HtmlLink(String href, String text) {
+        this.href = href;
+        this.text = text;
+    }
+}
@@ -0,0 +1,436 @@
+package org.example.printer3d.html;
+
+import org.jsoup.nodes.Entities;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DOM 을 만들지 않는 SAX 방식 HTML 스캐너.
+ * 본문을 작은 버퍼 단위로 디코딩하면서 보이는 텍스트는 {@link TextSink} 로, &lt;a href&gt; 링크는 {@link LinkSink} 로 바로 넘깁니다.
+ * 텍스트는 Jsoup 의 doc.text() 와 같은 규칙으로 정리합니다. (script/style 제외, 엔티티 해석, 공백 연속은 1칸, 블록 태그 경계는 공백)
+ * 키워드 검출/링크 수집 전용이므로 오류 복구나 트리 구성 규칙은 따르지 않습니다.
+ */
+public final class HtmlStreamScanner {
+
+    private static final int BUFFER_SIZE = 8192;     // 입력 디코딩 버퍼 (글자 수)
+    private static final int TEXT_CHUNK_SIZE = 4096; // TextSink 로 넘기는 텍스트 조각 크기
+    private static final int SNIFF_BYTES = 5000;     // meta charset 탐색 범위 (Jsoup 과 동일)
+    private static final int MAX_LINK_TEXT = 256;    // 링크 텍스트 최대 길이
+    private static final int MAX_ENTITY_LENGTH = 32;
+
+    private static final Pattern META_CHARSET = Pattern.compile(
+            "<meta[^>]*?charset\\s*=\\s*[\"']?\\s*([a-z0-9_.:\\-]+)", Pattern.CASE_INSENSITIVE);
+
+    // 내용을 텍스트로 보지 않는 태그
+    private static final Set<String> RAW_TEXT_TAGS = new HashSet<>(Arrays.asList("script", "style"));
+
+    // 경계에서 단어가 나뉘는 태그 (Jsoup 블록 태그 + br)
+    private static final Set<String> BLOCK_TAGS = new HashSet<>(Arrays.asList(
+            "html", "head", "body", "title", "br", "hr", "p", "div", "section", "article", "aside", "nav",
+            "header", "footer", "main", "address", "blockquote", "pre", "figure", "figcaption", "form",
+            "fieldset", "legend", "h1", "h2", "h3", "h4", "h5", "h6", "ul", "ol", "li", "dl", "dt", "dd",
+            "table", "caption", "thead", "tbody", "tfoot", "tr", "th", "td", "option", "noscript", "iframe"
+    ));
+
+    /**
+     * 보이는 텍스트 조각을 받습니다. 배열은 재사용되므로 호출 안에서만 읽어야 합니다.
+     */
+    @FunctionalInterface
+    public interface TextSink {
+        void onText(char[] chars, int start, int length);
+    }
+
+    /**
+     * &lt;a href&gt; 링크를 받습니다. (href 는 절대 URL, 해석 실패 시 빈 문자열)
+     */
+    @FunctionalInterface
+    public interface LinkSink {
+        void onLink(String href, String text);
+    }
+
+    private final Reader in;
+    private final TextSink textSink;
+    private final LinkSink linkSink;
+    private String baseUrl;
+    private boolean baseFromTag; // <base href> 는 첫 번째 것만 적용
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+
+    private final char[] text = new char[TEXT_CHUNK_SIZE];
+    private int textLength;
+    private boolean pendingSpace;
+    private boolean emittedAny;
+
+    private final StringBuilder scratch = new StringBuilder();
+    private String anchorHref;                     // 열려 있는 <a> 의 href (없으면 null)
+    private final StringBuilder anchorText = new StringBuilder();
+
+    private HtmlStreamScanner(Reader in, String baseUrl, TextSink textSink, LinkSink linkSink) {
+        this.in = in;
+        this.baseUrl = baseUrl;
+        this.textSink = textSink;
+        this.linkSink = linkSink;
+    }
+
+    /**
+     * 본문을 훑어 텍스트와 링크를 전달합니다.
+     *
+     * @param headerCharset Content-Type 의 charset (없으면 BOM/meta 태그로 판별, 그래도 없으면 UTF-8)
+     * @param linkSink      링크가 필요 없으면 null
+     */
+    public static void scan(byte[] body, String headerCharset, String baseUrl,
+                            TextSink textSink, LinkSink linkSink) throws IOException {
+        Charset charset = detectCharset(body, headerCharset);
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(body), charset)) {
+            new HtmlStreamScanner(reader, baseUrl, textSink, linkSink).run();
+        }
+    }
+
+    /**
+     * 본문 디코딩에 사용할 charset 판별
+     */
+    public static Charset detectCharset(byte[] body, String headerCharset) {
+        Charset charset = toCharset(headerCharset);
+        if (charset != null) return charset;
+
+        // BOM
+        if (body.length >= 3 && (body[0] & 0xFF) == 0xEF && (body[1] & 0xFF) == 0xBB && (body[2] & 0xFF) == 0xBF) {
+            return StandardCharsets.UTF_8;
+        }
+        if (body.length >= 2 && (body[0] & 0xFF) == 0xFE && (body[1] & 0xFF) == 0xFF) {
+            return StandardCharsets.UTF_16BE;
+        }
+        if (body.length >= 2 && (body[0] & 0xFF) == 0xFF && (body[1] & 0xFF) == 0xFE) {
+            return StandardCharsets.UTF_16LE;
+        }
+
+        // <meta charset="..."> 또는 <meta http-equiv="Content-Type" content="...; charset=...">
+        String head = new String(body, 0, Math.min(body.length, SNIFF_BYTES), StandardCharsets.ISO_8859_1);
+        Matcher matcher = META_CHARSET.matcher(head);
+        if (matcher.find()) {
+            charset = toCharset(matcher.group(1));
+            if (charset != null) return charset;
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static Charset toCharset(String name) {
+        if (name == null || name.isEmpty()) return null;
+        try {
+            return Charset.isSupported(name) ? Charset.forName(name) : null;
+        } catch (IllegalCharsetNameException e) {
+            return null;
+        }
+    }
+
+    private void run() throws IOException {
+        if (peek() == '\uFEFF') read(); // BOM
+
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '<') {
+                markup();
+            } else if (c == '&') {
+                entity();
+            } else {
+                appendChar((char) c);
+            }
+        }
+        closeAnchor();
+        flushText();
+    }
+
+    // ── 마크업 ──
+
+    private void markup() throws IOException {
+        int next = peek();
+        if (next == '!') {
+            read();
+            if (peek() == '-') {
+                read();
+                if (peek() == '-') {
+                    read();
+                    skipComment();
+                    return;
+                }
+            }
+            skipPast('>'); // <!DOCTYPE>, <![CDATA[ 등
+        } else if (next == '?') {
+            skipPast('>');
+        } else if (next == '/') {
+            read();
+            String name = readTagName();
+            skipPast('>');
+            if (!name.isEmpty()) endTag(name);
+        } else if (isAsciiLetter(next)) {
+            startTag(readTagName());
+        } else {
+            appendChar('<');
+        }
+    }
+
+    private void startTag(String name) throws IOException {
+        boolean keepAttributes = "a".equals(name) || "base".equals(name);
+        String href = readAttributes(keepAttributes);
+
+        if (BLOCK_TAGS.contains(name)) {
+            pendingSpace = true;
+        }
+        if (RAW_TEXT_TAGS.contains(name)) {
+            skipRawText(name);
+        } else if ("a".equals(name) && href != null) {
+            closeAnchor(); // 닫히지 않은 이전 링크
+            anchorHref = resolve(href);
+            anchorText.setLength(0);
+        } else if ("base".equals(name) && href != null && !baseFromTag) {
+            baseFromTag = true;
+            String resolved = resolve(href);
+            if (!resolved.isEmpty()) baseUrl = resolved;
+        }
+    }
+
+    private void endTag(String name) {
+        if (BLOCK_TAGS.contains(name)) {
+            pendingSpace = true;
+        }
+        if ("a".equals(name)) {
+            closeAnchor();
+        }
+    }
+
+    private void closeAnchor() {
+        if (anchorHref == null) return;
+        if (linkSink != null) {
+            linkSink.onLink(anchorHref, anchorText.toString().trim());
+        }
+        anchorHref = null;
+    }
+
+    /**
+     * 속성을 '>' 까지 읽습니다. keep 이면 href 값을 반환 (없으면 null), 아니면 값을 만들지 않고 건너뜁니다.
+     */
+    private String readAttributes(boolean keep) throws IOException {
+        String href = null;
+        while (true) {
+            int c = read();
+            while (c != -1 && isWhitespace(c)) c = read();
+            if (c == -1 || c == '>') return href;
+            if (c == '/') continue;
+
+            // 속성 이름
+            scratch.setLength(0);
+            while (c != -1 && !isWhitespace(c) && c != '=' && c != '>' && c != '/') {
+                if (keep) scratch.append(Character.toLowerCase((char) c));
+                c = read();
+            }
+            boolean isHref = keep && "href".contentEquals(scratch);
+            while (c != -1 && isWhitespace(c)) c = read();
+            if (c != '=') {
+                if (c == '>' || c == -1) return href;
+                pos--; // 다음 속성의 첫 글자
+                continue;
+            }
+
+            // 속성 값
+            c = read();
+            while (c != -1 && isWhitespace(c)) c = read();
+            scratch.setLength(0);
+            if (c == '"' || c == '\'') {
+                int quote = c;
+                while ((c = read()) != -1 && c != quote) {
+                    if (isHref) scratch.append((char) c);
+                }
+            } else {
+                while (c != -1 && !isWhitespace(c) && c != '>') {
+                    if (isHref) scratch.append((char) c);
+                    c = read();
+                }
+                if (c == '>') {
+                    if (isHref && href == null) href = decodeAttribute(scratch);
+                    return href;
+                }
+            }
+            if (isHref && href == null) href = decodeAttribute(scratch);
+            if (c == -1) return href;
+        }
+    }
+
+    private static String decodeAttribute(CharSequence value) {
+        String raw = value.toString().trim();
+        return raw.indexOf('&') >= 0 ? Entities.unescape(raw) : raw;
+    }
+
+    private String readTagName() throws IOException {
+        scratch.setLength(0);
+        int c;
+        while ((c = peek()) != -1 && !isWhitespace(c) && c != '/' && c != '>') {
+            scratch.append(Character.toLowerCase((char) read()));
+        }
+        return scratch.toString();
+    }
+
+    /**
+     * script/style 내용을 닫는 태그까지 건너뜁니다.
+     */
+    private void skipRawText(String name) throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c != '<' || peek() != '/') continue;
+            read();
+            int matched = 0;
+            while (matched < name.length() && (c = peek()) != -1
+                    && Character.toLowerCase((char) c) == name.charAt(matched)) {
+                read();
+                matched++;
+            }
+            if (matched == name.length() && !isAsciiLetter(peek())) {
+                skipPast('>');
+                return;
+            }
+        }
+    }
+
+    private void skipComment() throws IOException {
+        int dashes = 0;
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '>' && dashes >= 2) return;
+            dashes = c == '-' ? dashes + 1 : 0;
+        }
+    }
+
+    private void skipPast(char end) throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != end) {
+            // skip
+        }
+    }
+
+    // ── 텍스트 ──
+
+    /**
+     * '&' 다음의 문자 참조를 해석합니다. 참조가 아니면 읽은 글자를 그대로 텍스트로 씁니다.
+     */
+    private void entity() throws IOException {
+        scratch.setLength(0);
+        int c;
+        while (scratch.length() < MAX_ENTITY_LENGTH && (c = peek()) != -1
+                && (isAsciiLetter(c) || (c >= '0' && c <= '9') || (c == '#' && scratch.length() == 0))) {
+            scratch.append((char) read());
+        }
+        boolean terminated = peek() == ';';
+        String name = scratch.toString();
+
+        String decoded = null;
+        if (name.startsWith("#") && name.length() > 1) {
+            decoded = decodeNumeric(name.substring(1));
+        } else if (!name.isEmpty() && (terminated ? Entities.isNamedEntity(name) : Entities.isBaseNamedEntity(name))) {
+            decoded = Entities.getByName(name);
+        }
+
+        if (decoded == null) {
+            appendChar('&');
+            for (int i = 0; i < name.length(); i++) appendChar(name.charAt(i));
+            return;
+        }
+        if (terminated) read();
+        for (int i = 0; i < decoded.length(); i++) appendChar(decoded.charAt(i));
+    }
+
+    private static String decodeNumeric(String digits) {
+        try {
+            int codePoint = digits.charAt(0) == 'x' || digits.charAt(0) == 'X'
+                    ? Integer.parseInt(digits.substring(1), 16)
+                    : Integer.parseInt(digits);
+            if (!Character.isValidCodePoint(codePoint)) return null;
+            return new String(Character.toChars(codePoint));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 공백을 정리하며 텍스트 1글자를 씁니다.
+     */
+    private void appendChar(char c) {
+        if (isWhitespace(c)) {
+            pendingSpace = true;
+            return;
+        }
+        if (pendingSpace && emittedAny) {
+            emit(' ');
+        }
+        pendingSpace = false;
+        emittedAny = true;
+        emit(c);
+    }
+
+    private void emit(char c) {
+        if (anchorHref != null && anchorText.length() < MAX_LINK_TEXT) {
+            anchorText.append(c);
+        }
+        text[textLength++] = c;
+        if (textLength == text.length) flushText();
+    }
+
+    private void flushText() {
+        if (textLength > 0) {
+            textSink.onText(text, 0, textLength);
+            textLength = 0;
+        }
+    }
+
+    private String resolve(String href) {
+        try {
+            return baseUrl == null ? new URL(href).toExternalForm() : new URL(new URL(baseUrl), href).toExternalForm();
+        } catch (MalformedURLException e) {
+            return "";
+        }
+    }
+
+    // ── 입력 버퍼 ──
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buffer[pos++];
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buffer[pos];
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            pos = limit = 0;
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u00A0';
+    }
+
+    private static boolean isAsciiLetter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
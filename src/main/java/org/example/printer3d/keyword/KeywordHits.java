@@ -0,0 +1,85 @@
+package org.example.printer3d.keyword;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link KeywordMatcher#scan} 결과: 키워드별 출현 횟수와 시작 위치.
+ * 위치는 키워드당 최대 {@value #MAX_POSITIONS_PER_KEYWORD}개까지만 보관합니다. (횟수는 정확히 집계)
+ */
+public class KeywordHits {
+
+    public static final int MAX_POSITIONS_PER_KEYWORD = 100;
+
+    private final String[] keywords;
+    private final int[] counts;
+    private final int[][] positions; // 첫 출현 시 할당
+
+    KeywordHits(String[] keywords) {
+        this.keywords = keywords;
+        this.counts = new int[keywords.length];
+        this.positions = new int[keywords.length][];
+    }
+
+    void record(int keywordIndex, int position) {
+        int count = counts[keywordIndex]++;
+        if (count >= MAX_POSITIONS_PER_KEYWORD) return;
+
+        int[] stored = positions[keywordIndex];
+        if (stored == null) {
+            stored = new int[4];
+            positions[keywordIndex] = stored;
+        } else if (count == stored.length) {
+            stored = Arrays.copyOf(stored, Math.min(stored.length * 2, MAX_POSITIONS_PER_KEYWORD));
+            positions[keywordIndex] = stored;
+        }
+        stored[count] = position;
+    }
+
+    /**
+     * 키워드 출현 횟수
+     */
+    public int count(int keywordIndex) {
+        return counts[keywordIndex];
+    }
+
+    /**
+     * 키워드 출현 시작 위치 (최대 MAX_POSITIONS_PER_KEYWORD 개)
+     */
+    public int[] positions(int keywordIndex) {
+        int[] stored = positions[keywordIndex];
+        if (stored == null) return new int[0];
+        return Arrays.copyOf(stored, Math.min(counts[keywordIndex], MAX_POSITIONS_PER_KEYWORD));
+    }
+
+    /**
+     * 한 번 이상 등장한 키워드 목록 (선언 순서)
+     */
+    public List<String> foundKeywords() {
+        List<String> found = new ArrayList<>();
+        for (int k = 0; k < keywords.length; k++) {
+            if (counts[k] > 0) found.add(keywords[k]);
+        }
+        return found;
+    }
+
+    public boolean isEmpty() {
+        for (int count : counts) {
+            if (count > 0) return false;
+        }
+        return true;
+    }
+
+    public int totalHits() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public int size() {
+        return keywords.length;
+    }
+}
@@ -0,0 +1,251 @@
+package org.example.printer3d.keyword;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick 다중 키워드 매처.
+ * 키워드 배열을 한 번 오토마톤으로 컴파일해 두고, 텍스트를 한 번만 훑어서 모든 키워드의 출현을 찾습니다.
+ * 대소문자는 글자 단위로 비교 시점에 소문자화하므로 text.toLowerCase() 같은 복사본을 만들 필요가 없습니다.
+ * 컴파일된 매처는 불변이므로 여러 스레드/검출기가 공유해도 안전합니다.
+ */
+public final class KeywordMatcher {
+
+    private final String[] keywords;    // 원본 키워드 (결과 표시용)
+    private final int[] keywordLengths;
+
+    // 상태별 전이 (글자 오름차순 정렬 → 이진 탐색)
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    private final int[][] outputs;      // 해당 상태에서 끝나는 키워드 인덱스 (실패 링크 경로 포함)
+
+    private KeywordMatcher(String[] keywords, int[] keywordLengths, char[][] edgeChars, int[][] edgeTargets,
+                           int[] fail, int[][] outputs) {
+        this.keywords = keywords;
+        this.keywordLengths = keywordLengths;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.outputs = outputs;
+    }
+
+    /**
+     * 키워드 배열을 매처로 컴파일합니다. (빈 키워드는 무시)
+     */
+    public static KeywordMatcher compile(String... keywords) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        nodeOutputs.add(new ArrayList<>());
+
+        int[] lengths = new int[keywords.length];
+        for (int k = 0; k < keywords.length; k++) {
+            String keyword = keywords[k];
+            lengths[k] = keyword.length();
+            if (keyword.isEmpty()) continue;
+
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = Character.toLowerCase(keyword.charAt(i));
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    nodeOutputs.add(new ArrayList<>());
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            nodeOutputs.get(state).add(k);
+        }
+
+        int stateCount = trie.size();
+        char[][] edgeChars = new char[stateCount][];
+        int[][] edgeTargets = new int[stateCount][];
+        for (int s = 0; s < stateCount; s++) {
+            TreeMap<Character, Integer> edges = trie.get(s);
+            edgeChars[s] = new char[edges.size()];
+            edgeTargets[s] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeChars[s][i] = edge.getKey();
+                edgeTargets[s][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        // BFS 로 실패 링크 계산 + 출력 병합
+        int[] fail = new int[stateCount];
+        int[][] outputs = new int[stateCount][];
+        outputs[0] = toArray(nodeOutputs.get(0));
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[0]) {
+            fail[target] = 0;
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            List<Integer> merged = new ArrayList<>(nodeOutputs.get(state));
+            if (state != 0) {
+                for (int o : outputs[fail[state]]) {
+                    if (!merged.contains(o)) merged.add(o);
+                }
+            }
+            outputs[state] = toArray(merged);
+
+            for (int i = 0; i < edgeChars[state].length; i++) {
+                char c = edgeChars[state][i];
+                int child = edgeTargets[state][i];
+                int f = fail[state];
+                int next = goTo(edgeChars, edgeTargets, f, c);
+                while (f != 0 && next < 0) {
+                    f = fail[f];
+                    next = goTo(edgeChars, edgeTargets, f, c);
+                }
+                fail[child] = (state != 0 && next >= 0) ? next : 0;
+                queue.add(child);
+            }
+        }
+
+        return new KeywordMatcher(keywords.clone(), lengths, edgeChars, edgeTargets, fail, outputs);
+    }
+
+    /**
+     * 텍스트를 한 번 훑어 키워드별 출현 횟수와 위치를 모두 구합니다.
+     */
+    public KeywordHits scan(CharSequence text) {
+        Session session = newSession();
+        session.feed(text);
+        return session.hits();
+    }
+
+    /**
+     * 텍스트를 조각 단위로 흘려 넣을 수 있는 검사 세션을 만듭니다.
+     * 조각 경계에 걸친 키워드도 찾으며, 위치는 세션 시작부터의 누적 오프셋입니다.
+     */
+    public Session newSession() {
+        return new Session();
+    }
+
+    /**
+     * 텍스트에 등장하는 키워드 목록 (선언 순서, 중복 없이). 기존 findMatchingKeywords 대체용.
+     */
+    public List<String> findMatching(CharSequence text) {
+        boolean[] found = new boolean[keywords.length];
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = step(state, Character.toLowerCase(text.charAt(i)));
+            for (int k : outputs[state]) {
+                found[k] = true;
+            }
+        }
+
+        List<String> result = new ArrayList<>();
+        for (int k = 0; k < keywords.length; k++) {
+            if (found[k]) result.add(keywords[k]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return keywords.length;
+    }
+
+    public String keyword(int index) {
+        return keywords[index];
+    }
+
+    /**
+     * 상태 전이 (실패 링크 포함)
+     */
+    int step(int state, char c) {
+        while (true) {
+            int next = goTo(edgeChars, edgeTargets, state, c);
+            if (next >= 0) return next;
+            if (state == 0) return 0;
+            state = fail[state];
+        }
+    }
+
+    /**
+     * 해당 상태에서 끝나는 키워드 인덱스
+     */
+    int[] outputsOf(int state) {
+        return outputs[state];
+    }
+
+    int stateCount() {
+        return fail.length;
+    }
+
+    int keywordLength(int index) {
+        return keywordLengths[index];
+    }
+
+    private static int goTo(char[][] edgeChars, int[][] edgeTargets, int state, char c) {
+        char[] chars = edgeChars[state];
+        int lo = 0;
+        int hi = chars.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char m = chars[mid];
+            if (m < c) {
+                lo = mid + 1;
+            } else if (m > c) {
+                hi = mid - 1;
+            } else {
+                return edgeTargets[state][mid];
+            }
+        }
+        return -1;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * 스트리밍 검사 세션 (단일 스레드 전용). 오토마톤 상태를 조각 사이에 유지합니다.
+     */
+    public final class Session {
+        private final KeywordHits hits = new KeywordHits(keywords);
+        private int state;
+        private int offset; // 지금까지 입력된 글자 수
+
+        public void feed(char c) {
+            state = step(state, Character.toLowerCase(c));
+            for (int k : outputs[state]) {
+                hits.record(k, offset - keywordLengths[k] + 1);
+            }
+            offset++;
+        }
+
+        public void feed(char[] chars, int start, int length) {
+            for (int i = start, end = start + length; i < end; i++) {
+                feed(chars[i]);
+            }
+        }
+
+        public void feed(CharSequence text) {
+            for (int i = 0, n = text.length(); i < n; i++) {
+                feed(text.charAt(i));
+            }
+        }
+
+        /**
+         * 지금까지의 검사 결과
+         */
+        public KeywordHits hits() {
+            return hits;
+        }
+    }
+}
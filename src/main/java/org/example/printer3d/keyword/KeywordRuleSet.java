@@ -0,0 +1,243 @@
+package org.example.printer3d.keyword;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 키워드 규칙 파일을 컴파일한 불변 규칙 집합.
+ * 카테고리별 키워드를 매처/링크 분류기로 한 번만 컴파일해 두므로 검사 중에는 추가 비용이 없고,
+ * 불변이라 여러 스레드가 공유해도 안전합니다. 사이트 하나를 검사하는 동안에는 같은 규칙 집합을 계속 써야
+ * 도중에 규칙 파일이 바뀌어도 점수와 링크 선택이 섞이지 않습니다. (교체는 {@link KeywordRules} 참고)
+ *
+ * <pre>
+ * # 주석
+ * [scanner]            카테고리 시작 (scanner, digital, priority, exclude, parked)
+ * 3d스캐너             키워드 (대소문자 무시)
+ * itero = 20           가중치 지정 (scanner/digital 은 키워드 1개당 점수, priority 는 링크 점수 배수)
+ * </pre>
+ * 가중치를 생략하면 scanner/digital 은 검출기의 기본 점수를, priority 는 1배를 씁니다.
+ */
+public final class KeywordRuleSet {
+
+    /**
+     * 규칙 파일의 카테고리
+     */
+    public enum Category {
+        SCANNER("scanner", true),   // 3D 스캐너 직접 언급 (점수)
+        DIGITAL("digital", true),   // 디지털 치과 간접 언급 (점수)
+        PRIORITY("priority", true), // 먼저 방문할 링크 (주소/링크 텍스트)
+        EXCLUDE("exclude", false),  // 방문하지 않을 링크
+        PARKED("parked", false);    // 주차/만료 도메인 안내 문구
+
+        private final String sectionName;
+        private final boolean weighted; // 가중치 지정 가능 여부
+
+        Category(String sectionName, boolean weighted) {
+            this.sectionName = sectionName;
+            this.weighted = weighted;
+        }
+
+        static Category ofSection(String name) {
+            for (Category category : values()) {
+                if (category.sectionName.equals(name)) return category;
+            }
+            return null;
+        }
+    }
+
+    private static final int DEFAULT_WEIGHT = 0; // 가중치 생략 (검출기 기본 점수 사용)
+    private static final int PARKED_SHORT_PAGE_CHARS = 1500; // 이 길이 이하의 짧은 페이지는 주차 문구가 어디 있든 주차로 판정
+    private static final int PARKED_HEAD_CHARS = 200;        // 긴 페이지는 주차 문구가 앞부분(제목/첫 제목줄)에 있어야 주차로 판정
+
+    private final String source;
+    private final Map<Category, KeywordMatcher> matchers;
+    private final Map<Category, int[]> weights;                       // 키워드 인덱스별 가중치 (0 = 기본값)
+    private final Map<Category, Map<String, Integer>> weightsByKeyword; // findMatching 결과 점수 계산용
+    private final LinkPriorityClassifier linkClassifier;
+    private final int keywordCount;
+
+    private KeywordRuleSet(String source, Map<Category, KeywordMatcher> matchers, Map<Category, int[]> weights,
+                           Map<Category, Map<String, Integer>> weightsByKeyword, LinkPriorityClassifier linkClassifier,
+                           int keywordCount) {
+        this.source = source;
+        this.matchers = matchers;
+        this.weights = weights;
+        this.weightsByKeyword = weightsByKeyword;
+        this.linkClassifier = linkClassifier;
+        this.keywordCount = keywordCount;
+    }
+
+    /**
+     * 규칙 파일을 읽어 컴파일합니다. 형식 오류는 줄 번호와 함께 IllegalArgumentException.
+     *
+     * @param source 로그/오류 메시지에 쓸 출처 (파일 경로 등)
+     */
+    public static KeywordRuleSet parse(Reader reader, String source) throws IOException {
+        Map<Category, LinkedHashMap<String, Integer>> sections = new EnumMap<>(Category.class);
+        for (Category category : Category.values()) {
+            sections.put(category, new LinkedHashMap<>());
+        }
+
+        BufferedReader lines = new BufferedReader(reader);
+        Category current = null;
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (lineNumber == 1 && trimmed.startsWith("\uFEFF")) {
+                trimmed = trimmed.substring(1).trim(); // BOM
+            }
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            if (trimmed.startsWith("[") && trimmed.endsWith("]")) {
+                String name = trimmed.substring(1, trimmed.length() - 1).trim().toLowerCase(Locale.ROOT);
+                current = Category.ofSection(name);
+                if (current == null) {
+                    throw invalid(source, lineNumber, "알 수 없는 카테고리: " + name);
+                }
+                continue;
+            }
+            if (current == null) {
+                throw invalid(source, lineNumber, "카테고리([scanner] 등)보다 키워드가 먼저 나옴");
+            }
+
+            String keyword = trimmed;
+            int weight = DEFAULT_WEIGHT;
+            int equals = trimmed.lastIndexOf('=');
+            if (equals >= 0) {
+                keyword = trimmed.substring(0, equals).trim();
+                if (!current.weighted) {
+                    throw invalid(source, lineNumber, current.sectionName + " 카테고리는 가중치를 쓰지 않음");
+                }
+                try {
+                    weight = Integer.parseInt(trimmed.substring(equals + 1).trim());
+                } catch (NumberFormatException e) {
+                    throw invalid(source, lineNumber, "가중치가 정수가 아님: " + trimmed.substring(equals + 1).trim());
+                }
+                if (weight < 1) {
+                    throw invalid(source, lineNumber, "가중치는 1 이상이어야 함: " + weight);
+                }
+            }
+            if (keyword.isEmpty()) {
+                throw invalid(source, lineNumber, "빈 키워드");
+            }
+            sections.get(current).put(keyword.toLowerCase(Locale.ROOT), weight); // 같은 키워드는 마지막 줄 기준
+        }
+
+        if (sections.get(Category.SCANNER).isEmpty()) {
+            throw new IllegalArgumentException(source + ": [scanner] 키워드가 없습니다.");
+        }
+        return compile(sections, source);
+    }
+
+    private static KeywordRuleSet compile(Map<Category, LinkedHashMap<String, Integer>> sections, String source) {
+        Map<Category, KeywordMatcher> matchers = new EnumMap<>(Category.class);
+        Map<Category, int[]> weights = new EnumMap<>(Category.class);
+        Map<Category, Map<String, Integer>> weightsByKeyword = new EnumMap<>(Category.class);
+        int keywordCount = 0;
+        for (Map.Entry<Category, LinkedHashMap<String, Integer>> section : sections.entrySet()) {
+            String[] keywords = section.getValue().keySet().toArray(new String[0]);
+            int[] keywordWeights = new int[keywords.length];
+            for (int k = 0; k < keywords.length; k++) {
+                keywordWeights[k] = section.getValue().get(keywords[k]);
+            }
+            matchers.put(section.getKey(), KeywordMatcher.compile(keywords));
+            weights.put(section.getKey(), keywordWeights);
+            weightsByKeyword.put(section.getKey(), new HashMap<>(section.getValue()));
+            keywordCount += keywords.length;
+        }
+
+        int[] priorityWeights = weights.get(Category.PRIORITY).clone();
+        for (int k = 0; k < priorityWeights.length; k++) {
+            if (priorityWeights[k] == DEFAULT_WEIGHT) priorityWeights[k] = 1;
+        }
+        LinkPriorityClassifier linkClassifier = LinkPriorityClassifier.compile(
+                sections.get(Category.PRIORITY).keySet().toArray(new String[0]), priorityWeights,
+                sections.get(Category.EXCLUDE).keySet().toArray(new String[0]));
+        return new KeywordRuleSet(source, matchers, weights, weightsByKeyword, linkClassifier, keywordCount);
+    }
+
+    private static IllegalArgumentException invalid(String source, int lineNumber, String message) {
+        return new IllegalArgumentException(String.format("%s:%d: %s", source, lineNumber, message));
+    }
+
+    public KeywordMatcher matcher(Category category) {
+        return matchers.get(category);
+    }
+
+    /**
+     * 키워드(매처 인덱스)의 점수. 규칙 파일에 가중치가 없으면 defaultPoints.
+     */
+    public int pointsOf(Category category, int keywordIndex, int defaultPoints) {
+        int weight = weights.get(category)[keywordIndex];
+        return weight == DEFAULT_WEIGHT ? defaultPoints : weight;
+    }
+
+    /**
+     * 발견된 키워드 목록({@link KeywordMatcher#findMatching} 결과)의 점수 합.
+     */
+    public int pointsOf(Category category, List<String> foundKeywords, int defaultPoints) {
+        Map<String, Integer> categoryWeights = weightsByKeyword.get(category);
+        int points = 0;
+        for (String keyword : foundKeywords) {
+            Integer weight = categoryWeights.get(keyword);
+            points += weight == null || weight == DEFAULT_WEIGHT ? defaultPoints : weight;
+        }
+        return points;
+    }
+
+    /**
+     * 링크 우선순위 분류기 (priority/exclude 카테고리)
+     */
+    public LinkPriorityClassifier getLinkClassifier() {
+        return linkClassifier;
+    }
+
+    /**
+     * 주차/만료 도메인 안내 페이지인지 (치과 사이트가 아님이 확실)
+     * 주차 페이지는 안내 문구가 거의 전부인 짧은 페이지이므로, 짧은 페이지에서 문구가 나오거나
+     * 긴 페이지라도 문구가 맨 앞(제목)에 있을 때만 주차로 봅니다. 정상 사이트 본문/공지 속 "서비스 기간이 만료" 같은 문구는 무시.
+     *
+     * @param pageText 보이는 텍스트 (제목부터 문서 순서대로)
+     */
+    public boolean isParkedPage(CharSequence pageText) {
+        KeywordHits hits = matchers.get(Category.PARKED).scan(pageText);
+        if (hits.isEmpty()) {
+            return false;
+        }
+        if (pageText.length() <= PARKED_SHORT_PAGE_CHARS) {
+            return true;
+        }
+        for (int k = 0; k < hits.size(); k++) {
+            for (int position : hits.positions(k)) {
+                if (position < PARKED_HEAD_CHARS) return true;
+            }
+        }
+        return false;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * 로그용 요약 (출처, 카테고리별 키워드 수)
+     */
+    public String describe() {
+        List<String> counts = new ArrayList<>();
+        for (Category category : Category.values()) {
+            counts.add(category.sectionName + " " + matchers.get(category).size());
+        }
+        return String.format("%s (키워드 %d개: %s)", source, keywordCount, String.join(", ", counts));
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.printer3d.keyword;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 현재 사용 중인 키워드 규칙 집합.
+ * 기본값은 클래스패스의 {@value #DEFAULT_RESOURCE} 이고, {@link #watch} 로 외부 파일을 지정하면
+ * 파일이 바뀔 때마다 다시 컴파일해 통째로 교체합니다. (형식 오류면 기존 규칙 유지)
+ * 교체는 참조 하나를 바꾸는 것이므로 검출기는 사이트 검사를 시작할 때 {@link #current()} 를 한 번 받아
+ * 끝날 때까지 그 규칙 집합만 쓰면, 진행 중인 사이트는 도중에 규칙이 바뀌어도 일관된 결과를 냅니다.
+ */
+public final class KeywordRules {
+
+    public static final String DEFAULT_RESOURCE = "keyword-rules.txt";
+    private static final long RELOAD_CHECK_INTERVAL_MS = 2000; // 규칙 파일 변경 확인 간격
+
+    private static final AtomicReference<KeywordRuleSet> CURRENT = new AtomicReference<>(loadDefault());
+    private static final AtomicInteger reloadCount = new AtomicInteger(0);
+    private static final AtomicInteger reloadFailures = new AtomicInteger(0);
+
+    private static ScheduledExecutorService watcher; // watch() 호출 시 생성
+    private static long watchedModified;               // 마지막으로 읽은 파일의 수정 시각/크기
+    private static long watchedSize;
+
+    private KeywordRules() {
+    }
+
+    /**
+     * 지금 규칙 집합. 사이트 하나를 검사하는 동안에는 처음 받은 값을 계속 쓸 것.
+     */
+    public static KeywordRuleSet current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 외부 규칙 파일을 읽어 바로 적용하고, 이후 변경을 감시해 자동으로 다시 읽습니다.
+     * 처음 읽을 때의 형식 오류는 예외로 알립니다. (실행 시작 전에 잘못된 파일을 알 수 있도록)
+     */
+    public static synchronized KeywordRuleSet watch(Path file) throws IOException {
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        long size = Files.size(file);
+        KeywordRuleSet rules = load(file);
+        CURRENT.set(rules);
+        watchedModified = modified;
+        watchedSize = size;
+
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+        watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "keyword-rules");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(() -> reloadIfChanged(file),
+                RELOAD_CHECK_INTERVAL_MS, RELOAD_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        return rules;
+    }
+
+    /**
+     * 파일의 수정 시각이나 크기가 바뀌었으면 다시 컴파일해 교체합니다.
+     */
+    private static synchronized void reloadIfChanged(Path file) {
+        long modified;
+        long size;
+        try {
+            modified = Files.getLastModifiedTime(file).toMillis();
+            size = Files.size(file);
+        } catch (IOException e) {
+            return; // 편집기가 저장하는 도중 잠시 없어지는 경우 등, 다음 확인 때 다시 봄
+        }
+        if (modified == watchedModified && size == watchedSize) {
+            return;
+        }
+        watchedModified = modified;
+        watchedSize = size;
+
+        try {
+            KeywordRuleSet rules = load(file);
+            CURRENT.set(rules);
+            reloadCount.incrementAndGet();
+            System.out.printf("🔄 키워드 규칙 다시 읽음 (이후 시작하는 사이트부터 적용): %s\n", rules.describe());
+        } catch (IOException | RuntimeException e) {
+            reloadFailures.incrementAndGet();
+            System.err.printf("⚠️ 키워드 규칙 파일 오류, 기존 규칙 유지: %s\n", e.getMessage());
+        }
+    }
+
+    /**
+     * 로그용 통계 요약
+     */
+    public static String describeStats() {
+        return String.format("키워드 규칙 %s, 다시 읽음 %d회 (실패 %d회)",
+                CURRENT.get().getSource(), reloadCount.get(), reloadFailures.get());
+    }
+
+    private static KeywordRuleSet load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return KeywordRuleSet.parse(reader, file.toString());
+        }
+    }
+
+    private static KeywordRuleSet loadDefault() {
+        InputStream in = KeywordRules.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE);
+        if (in == null) {
+            throw new IllegalStateException("기본 키워드 규칙이 클래스패스에 없습니다: " + DEFAULT_RESOURCE);
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return KeywordRuleSet.parse(reader, "classpath:" + DEFAULT_RESOURCE);
+        } catch (IOException e) {
+            throw new IllegalStateException("기본 키워드 규칙을 읽을 수 없습니다: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.printer3d.keyword;
+
+/**
+ * 링크(URL + 링크 텍스트)의 방문 우선순위 계산기.
+ * 제외 키워드와 우선 키워드를 하나의 오토마톤으로 컴파일해 두고, URL 과 텍스트를 한 번씩만 훑습니다.
+ * ASCII 글자는 실패 링크까지 풀어 둔 전이표(상태 × 128)로 한 번에 이동하고,
+ * 상태마다 "여기서 끝나는 키워드" 를 비트 집합으로 미리 합쳐 두어 글자당 배열 조회 두 번으로 끝납니다.
+ * 소문자 복사본이나 결과 목록을 만들지 않으므로 링크가 수백 개인 메뉴에서도 할당이 없습니다.
+ * 컴파일된 분류기는 불변이므로 여러 스레드가 공유해도 안전합니다.
+ */
+public final class LinkPriorityClassifier {
+
+    public static final int EXCLUDED = 0;       // 제외 키워드 포함 → 방문하지 않음
+    private static final int URL_MATCH_SCORE = 10;  // 우선 키워드가 URL 에 있을 때
+    private static final int TEXT_MATCH_SCORE = 15; // 우선 키워드가 링크 텍스트에 있을 때
+    public static final int BASE_PRIORITY = 1;      // 우선 키워드가 하나도 없을 때
+    private static final int MAX_PRIORITY_KEYWORDS = 63; // 키워드별 일치 여부를 long 비트로 관리 (최상위 비트는 제외 표시)
+    private static final long EXCLUDE_BIT = 1L << 63;
+    private static final int ASCII_SIZE = 128;
+
+    private final KeywordMatcher matcher; // 인덱스 0..excludeCount-1 = 제외, 이후 = 우선 (비 ASCII 전이용)
+    private final int[] asciiNext;        // [상태 * 128 + 글자] → 다음 상태 (실패 링크 반영)
+    private final long[] stateHits;       // 상태별 끝나는 우선 키워드 비트 (제외 키워드면 EXCLUDE_BIT)
+    private final int[] priorityWeights;  // 우선 키워드별 점수 배수 (null 이면 모두 1)
+
+    private LinkPriorityClassifier(KeywordMatcher matcher, int[] asciiNext, long[] stateHits, int[] priorityWeights) {
+        this.matcher = matcher;
+        this.asciiNext = asciiNext;
+        this.stateHits = stateHits;
+        this.priorityWeights = priorityWeights;
+    }
+
+    /**
+     * @param priorityKeywords URL/텍스트에 있으면 점수를 더하는 키워드 (최대 63개)
+     * @param excludeKeywords  URL/텍스트에 하나라도 있으면 제외하는 키워드
+     */
+    public static LinkPriorityClassifier compile(String[] priorityKeywords, String[] excludeKeywords) {
+        return compile(priorityKeywords, null, excludeKeywords);
+    }
+
+    /**
+     * @param priorityWeights 우선 키워드별 점수 배수 (priorityKeywords 와 같은 순서, null 이면 모두 1)
+     */
+    public static LinkPriorityClassifier compile(String[] priorityKeywords, int[] priorityWeights, String[] excludeKeywords) {
+        if (priorityWeights != null && priorityWeights.length != priorityKeywords.length) {
+            throw new IllegalArgumentException("우선 키워드와 가중치 개수가 다릅니다: " + priorityKeywords.length + " / " + priorityWeights.length);
+        }
+        if (priorityKeywords.length > MAX_PRIORITY_KEYWORDS) {
+            throw new IllegalArgumentException("우선 키워드는 최대 " + MAX_PRIORITY_KEYWORDS + "개입니다: " + priorityKeywords.length);
+        }
+        String[] all = new String[excludeKeywords.length + priorityKeywords.length];
+        System.arraycopy(excludeKeywords, 0, all, 0, excludeKeywords.length);
+        System.arraycopy(priorityKeywords, 0, all, excludeKeywords.length, priorityKeywords.length);
+        KeywordMatcher matcher = KeywordMatcher.compile(all);
+
+        int states = matcher.stateCount();
+        int[] asciiNext = new int[states * ASCII_SIZE];
+        long[] stateHits = new long[states];
+        for (int state = 0; state < states; state++) {
+            for (char c = 0; c < ASCII_SIZE; c++) {
+                asciiNext[state * ASCII_SIZE + c] = matcher.step(state, Character.toLowerCase(c));
+            }
+            for (int k : matcher.outputsOf(state)) {
+                if (k < excludeKeywords.length) {
+                    stateHits[state] = EXCLUDE_BIT;
+                    break;
+                }
+                stateHits[state] |= 1L << (k - excludeKeywords.length);
+            }
+        }
+        return new LinkPriorityClassifier(matcher, asciiNext, stateHits,
+                priorityWeights == null ? null : priorityWeights.clone());
+    }
+
+    /**
+     * 링크 우선순위. 제외 대상이면 {@link #EXCLUDED}(0),
+     * 아니면 우선 키워드마다 URL 에 있으면 10점, 텍스트에 있으면 15점 (가중치 배수 적용, 하나도 없으면 1).
+     */
+    public int priorityOf(CharSequence url, CharSequence linkText) {
+        long urlHits = scan(url);
+        if (urlHits == EXCLUDE_BIT) return EXCLUDED;
+        long textHits = scan(linkText);
+        if (textHits == EXCLUDE_BIT) return EXCLUDED;
+
+        int priority = weightOf(urlHits) * URL_MATCH_SCORE + weightOf(textHits) * TEXT_MATCH_SCORE;
+        return priority == 0 ? BASE_PRIORITY : priority;
+    }
+
+    /**
+     * 비트 집합에 든 우선 키워드의 가중치 합
+     */
+    private int weightOf(long hits) {
+        if (priorityWeights == null) return Long.bitCount(hits);
+        int weight = 0;
+        while (hits != 0) {
+            weight += priorityWeights[Long.numberOfTrailingZeros(hits)];
+            hits &= hits - 1;
+        }
+        return weight;
+    }
+
+    /**
+     * 텍스트에 나온 우선 키워드 비트 집합. 제외 키워드가 나오면 즉시 EXCLUDE_BIT 만 반환합니다.
+     */
+    private long scan(CharSequence text) {
+        long hits = 0;
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            state = c < ASCII_SIZE
+                    ? asciiNext[state * ASCII_SIZE + c]
+                    : matcher.step(state, Character.toLowerCase(c));
+            long stateHit = stateHits[state];
+            if (stateHit == EXCLUDE_BIT) return EXCLUDE_BIT;
+            hits |= stateHit;
+        }
+        return hits;
+    }
+}
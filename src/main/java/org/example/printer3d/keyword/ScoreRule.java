@@ -0,0 +1,59 @@
+package org.example.printer3d.keyword;
+
+import lombok.Getter;
+
+/**
+ * 딥 크롤링 점수 규칙 (키워드당 점수 + 신뢰도 구간).
+ */
+@Getter
+public class ScoreRule {
+    private final int scannerPoints;       // 3D 스캐너 키워드 1개당 점수
+    private final int digitalPoints;       // 디지털 치과 키워드 1개당 점수 (0 이면 미사용)
+    private final int evidencePagePoints;  // 3D 키워드가 발견된 페이지 1개당 보너스 (2페이지 이상일 때)
+    private final int lowThreshold;
+    private final int mediumThreshold;
+    private final int highThreshold;
+
+    public ScoreRule(int scannerPoints, int digitalPoints, int evidencePagePoints,
+                     int lowThreshold, int mediumThreshold, int highThreshold) {
+        this.scannerPoints = scannerPoints;
+        this.digitalPoints = digitalPoints;
+        this.evidencePagePoints = evidencePagePoints;
+        this.lowThreshold = lowThreshold;
+        this.mediumThreshold = mediumThreshold;
+        this.highThreshold = highThreshold;
+    }
+
+    /**
+     * 딥 크롤링 기본 규칙 (키워드 12점, 디지털 4점, 페이지 보너스 3점 / 20·35·50)
+     */
+    public static ScoreRule deepScanDefault() {
+        return new ScoreRule(12, 4, 3, 20, 35, 50);
+    }
+
+    /**
+     * 점수에 해당하는 신뢰도 (HIGH, MEDIUM, LOW, NONE)
+     */
+    public String levelOf(int score) {
+        if (score >= highThreshold) return "HIGH";
+        if (score >= mediumThreshold) return "MEDIUM";
+        if (score >= lowThreshold) return "LOW";
+        return "NONE";
+    }
+
+    /**
+     * 신뢰도의 최소 점수
+     */
+    public int thresholdOf(String level) {
+        switch (level) {
+            case "HIGH":
+                return highThreshold;
+            case "MEDIUM":
+                return mediumThreshold;
+            case "LOW":
+                return lowThreshold;
+            default:
+                throw new IllegalArgumentException("알 수 없는 신뢰도: " + level);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.example.printer3d.keyword;
+
+import org.example.printer3d.model.Detection3DResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 사이트 단위 딥 크롤링 점수 누적기.
+ * 페이지가 도착할 때마다 키워드별 출현 횟수만 더해 두므로, 페이지 원문을 쌓아 두지 않고도
+ * 기존 allText 방식과 같은 결과를 만듭니다. (사이트당 메모리는 키워드 수에만 비례)
+ * 점수는 페이지가 늘어도 줄지 않으므로 한 번 도달한 등급은 확정입니다.
+ */
+public class SiteScoreAccumulator {
+
+    private final ScoreRule rule;
+    private final KeywordMatcher scannerMatcher;
+    private final KeywordMatcher digitalMatcher; // null 이면 디지털 키워드 미사용
+
+    private final int[] scannerPoints; // 키워드별 점수 (규칙 파일 가중치, 없으면 ScoreRule 기본 점수)
+    private final int[] digitalPoints;
+    private final int[] scannerCounts;
+    private final int[] digitalCounts;
+    private int evidencePageCount; // 3D 키워드가 발견된 페이지 수
+
+    /**
+     * @param rules 이 사이트 검사에 쓸 키워드 규칙 (검사 도중 바뀌지 않도록 시작할 때 받은 것).
+     *              ScoreRule 의 디지털 점수가 0 이면 digital 카테고리는 검사하지 않음
+     */
+    public SiteScoreAccumulator(ScoreRule rule, KeywordRuleSet rules) {
+        this.rule = rule;
+        this.scannerMatcher = rules.matcher(KeywordRuleSet.Category.SCANNER);
+        this.digitalMatcher = rule.getDigitalPoints() > 0 ? rules.matcher(KeywordRuleSet.Category.DIGITAL) : null;
+        this.scannerPoints = resolvePoints(rules, KeywordRuleSet.Category.SCANNER, scannerMatcher, rule.getScannerPoints());
+        this.digitalPoints = resolvePoints(rules, KeywordRuleSet.Category.DIGITAL, digitalMatcher, rule.getDigitalPoints());
+        this.scannerCounts = new int[scannerPoints.length];
+        this.digitalCounts = new int[digitalPoints.length];
+    }
+
+    /**
+     * 페이지 텍스트를 검사해 반영하고, 해당 페이지의 3D 스캐너 키워드 검사 결과를 반환합니다.
+     */
+    public KeywordHits addPageText(CharSequence pageText) {
+        PageScan pageScan = startPage();
+        pageScan.feed(pageText);
+        return pageScan.finish();
+    }
+
+    /**
+     * 텍스트를 조각 단위로 흘려 넣는 페이지 검사를 시작합니다. 다 넣은 뒤 {@link PageScan#finish()} 로 반영합니다.
+     */
+    public PageScan startPage() {
+        return new PageScan();
+    }
+
+    /**
+     * 한 페이지의 검사 결과를 반영합니다.
+     */
+    public synchronized void addPage(KeywordHits scannerHits, KeywordHits digitalHits) {
+        for (int k = 0; k < scannerCounts.length; k++) {
+            scannerCounts[k] += scannerHits.count(k);
+        }
+        if (digitalHits != null) {
+            for (int k = 0; k < digitalCounts.length; k++) {
+                digitalCounts[k] += digitalHits.count(k);
+            }
+        }
+        if (!scannerHits.isEmpty()) {
+            evidencePageCount++;
+        }
+    }
+
+    /**
+     * 지금까지의 점수
+     */
+    public synchronized int getScore() {
+        int score = pointsFound(scannerCounts, scannerPoints) + pointsFound(digitalCounts, digitalPoints);
+        // 페이지 다양성 보너스
+        if (evidencePageCount > 1) {
+            score += evidencePageCount * rule.getEvidencePagePoints();
+        }
+        return score;
+    }
+
+    /**
+     * 해당 신뢰도(HIGH/MEDIUM/LOW) 이상이 확정되었는지 여부. level 이 null 이면 항상 false.
+     */
+    public boolean hasReached(String level) {
+        return level != null && getScore() >= rule.thresholdOf(level);
+    }
+
+    /**
+     * 누적 결과를 Detection3DResult 에 기록합니다.
+     *
+     * @param pagesSaved 조기 종료로 가져오지 않은 페이지 수
+     */
+    public synchronized void applyTo(Detection3DResult result, int pageCount, int pagesSaved) {
+        int score = getScore();
+        List<String> found3D = foundKeywords(scannerMatcher, scannerCounts);
+        List<String> foundDigital = foundKeywords(digitalMatcher, digitalCounts);
+        StringBuilder evidence = new StringBuilder();
+
+        if (!found3D.isEmpty()) {
+            evidence.append("📱 3D스캐너: ").append(String.join(", ", found3D)).append(" | ");
+        }
+        if (!foundDigital.isEmpty()) {
+            evidence.append("💻 디지털: ").append(String.join(", ", foundDigital)).append(" | ");
+        }
+        evidence.append("📄 검사 페이지: ").append(pageCount).append("개");
+        if (pagesSaved > 0) {
+            evidence.append(" (⏩ 조기 종료, ").append(pagesSaved).append("페이지 생략)");
+        }
+
+        // 신뢰도 판정
+        String level = rule.levelOf(score);
+        result.setHas3DPrinter(!"NONE".equals(level));
+        result.setConfidenceLevel(level);
+        result.setScore(score);
+        result.setPagesSaved(pagesSaved);
+        result.setEvidence(evidence.toString());
+        result.setReason(evidence.length() > 0 ? evidence.toString() :
+                String.format("3D 관련 정보 없음 (%d페이지 검사)", pageCount));
+        result.setErrorMessage("");
+    }
+
+    /**
+     * 지금까지 발견된 3D 스캐너 키워드 (선언 순서)
+     */
+    public synchronized List<String> getFound3D() {
+        return foundKeywords(scannerMatcher, scannerCounts);
+    }
+
+    private static int[] resolvePoints(KeywordRuleSet rules, KeywordRuleSet.Category category,
+                                       KeywordMatcher matcher, int defaultPoints) {
+        int[] points = new int[matcher == null ? 0 : matcher.size()];
+        for (int k = 0; k < points.length; k++) {
+            points[k] = rules.pointsOf(category, k, defaultPoints);
+        }
+        return points;
+    }
+
+    private static int pointsFound(int[] counts, int[] points) {
+        int total = 0;
+        for (int k = 0; k < counts.length; k++) {
+            if (counts[k] > 0) total += points[k];
+        }
+        return total;
+    }
+
+    private static List<String> foundKeywords(KeywordMatcher matcher, int[] counts) {
+        List<String> found = new ArrayList<>();
+        for (int k = 0; k < counts.length; k++) {
+            if (counts[k] > 0) found.add(matcher.keyword(k));
+        }
+        return found;
+    }
+
+    /**
+     * 한 페이지 분량의 스트리밍 검사 (단일 스레드 전용)
+     */
+    public final class PageScan {
+        private final KeywordMatcher.Session scannerSession = scannerMatcher.newSession();
+        private final KeywordMatcher.Session digitalSession = digitalMatcher == null ? null : digitalMatcher.newSession();
+
+        public void feed(char[] chars, int start, int length) {
+            scannerSession.feed(chars, start, length);
+            if (digitalSession != null) digitalSession.feed(chars, start, length);
+        }
+
+        public void feed(CharSequence text) {
+            scannerSession.feed(text);
+            if (digitalSession != null) digitalSession.feed(text);
+        }
+
+        /**
+         * 페이지 결과를 사이트 점수에 반영하고 3D 스캐너 키워드 검사 결과를 반환합니다.
+         */
+        public KeywordHits finish() {
+            KeywordHits scannerHits = scannerSession.hits();
+            addPage(scannerHits, digitalSession == null ? null : digitalSession.hits());
+            return scannerHits;
+        }
+    }
+}
@@ -5,6 +5,7 @@ public class DentalInfo {
     private String name;
     private String website;
     private String email;
+    private int rowIndex = -1; // 원본 CSV 데이터 행 번호 (헤더 제외, 0부터). 결과를 원래 순서로 쓰는 데 사용
 
     public DentalInfo(String name, String website, String email) {
         this.name = name;
@@ -16,11 +17,13 @@ public class DentalInfo {
     public String getName() { return name; }
     public String getWebsite() { return website; }
     public String getEmail() { return email; }
+    public int getRowIndex() { return rowIndex; }
 
     // Setters
     public void setName(String name) { this.name = name; }
     public void setWebsite(String website) { this.website = website; }
     public void setEmail(String email) { this.email = email; }
+    public void setRowIndex(int rowIndex) { this.rowIndex = rowIndex; }
 
     @Override
     public String toString() {
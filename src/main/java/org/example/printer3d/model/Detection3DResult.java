@@ -10,13 +10,15 @@ public class Detection3DResult {
     private String website;
     private String email;
     private boolean has3DPrinter;
-    private String confidenceLevel; // HIGH, MEDIUM, LOW, NONE, ERROR
+    private String confidenceLevel; // HIGH, MEDIUM, LOW, NONE, ERROR, TIMEOUT (사이트 제한 시간 초과, 부분 결과)
     private int score;
     private String evidence;
     private String reason;
     private String errorMessage; // 🔥 오류 메시지 필드 추가
 //
     private String foundWebsite;
+    private int pagesSaved; // 조기 종료로 가져오지 않은 페이지 수
+    private String decidedTier; // 캐스케이드 모드에서 판정한 단계: HOMEPAGE (메인 페이지만으로 확정), DEEP (딥 크롤링), 그 외 빈 문자열
 
 
     public Detection3DResult(String dentalName, String website, String email) {
@@ -29,9 +31,25 @@ public class Detection3DResult {
         this.evidence = "";
         this.reason = "";
         this.errorMessage = ""; // 기본값 빈 문자열
+        this.decidedTier = "";
     }
 
-
+    /**
+     * 같은 사이트를 공유하는 다른 치과용 복사본 (치과 정보만 바꾸고 검출 결과는 그대로)
+     * pagesSaved 는 실제 크롤링한 결과에만 남겨 집계가 중복되지 않게 합니다.
+     */
+    public Detection3DResult copyFor(DentalInfo dental) {
+        Detection3DResult copy = new Detection3DResult(dental.getName(), dental.getWebsite(), dental.getEmail());
+        copy.has3DPrinter = has3DPrinter;
+        copy.confidenceLevel = confidenceLevel;
+        copy.score = score;
+        copy.evidence = evidence;
+        copy.reason = reason;
+        copy.errorMessage = errorMessage;
+        copy.foundWebsite = foundWebsite;
+        copy.decidedTier = decidedTier;
+        return copy;
+    }
 
     @Override
     public String toString() {